@@ -0,0 +1,46 @@
+package com.deliverytracker.benchmarks;
+
+import com.deliverytracker.model.Shipment;
+import com.deliverytracker.model.ShipmentStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.types.ObjectId;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class SampleData {
+    
+    private static final String[] CITIES = {
+        "New York", "Los Angeles", "Chicago", "Houston", "Phoenix", "Philadelphia", "San Antonio", "San Diego"
+    };
+    
+    private SampleData() {}
+    
+    // Same defaults Spring Boot applies to its auto-configured ObjectMapper
+    public static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+    
+    public static Shipment shipment(int index) {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 8, 0).plusMinutes(index);
+        Shipment shipment = new Shipment(CITIES[index % CITIES.length], CITIES[(index + 3) % CITIES.length],
+            ShipmentStatus.values()[index % 4]);
+        shipment.setId(new ObjectId().toHexString());
+        shipment.setTrackingNumber(String.format("DT%08X", index));
+        shipment.setDescription("Benchmark parcel " + index);
+        shipment.setCreatedAt(createdAt);
+        shipment.setUpdatedAt(createdAt.plusHours(2));
+        shipment.setEstimatedDelivery(createdAt.plusDays(3));
+        return shipment;
+    }
+    
+    public static List<Shipment> shipments(int count) {
+        List<Shipment> shipments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            shipments.add(shipment(i));
+        }
+        return shipments;
+    }
+}
@@ -0,0 +1,49 @@
+package com.deliverytracker.event;
+
+import com.deliverytracker.benchmarks.SampleData;
+import com.deliverytracker.model.Shipment;
+import com.deliverytracker.model.ShipmentStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The per-record serialization KafkaProducerService does before handing a record to the producer
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShipmentEventCodecBenchmark {
+    
+    @Param({BinaryShipmentEventCodec.NAME, JsonShipmentEventCodec.NAME})
+    private String codecName;
+    
+    private ShipmentEventCodec codec;
+    private ShipmentEvent event;
+    private byte[] payload;
+    
+    @Setup
+    public void setUp() {
+        List<ShipmentEventCodec> codecs = List.of(
+            new BinaryShipmentEventCodec(), new JsonShipmentEventCodec(SampleData.objectMapper()));
+        codec = new ShipmentEventCodecs(codecs, codecName).producerCodec();
+        
+        Shipment shipment = SampleData.shipment(7);
+        event = ShipmentEvent.statusUpdated(shipment, ShipmentStatus.PICKED_UP, ShipmentStatus.IN_TRANSIT,
+            LocalDateTime.of(2024, 1, 2, 9, 30));
+        payload = codec.encode(event);
+    }
+    
+    @Benchmark
+    public byte[] encode() {
+        return codec.encode(event);
+    }
+    
+    @Benchmark
+    public ShipmentEvent decode() {
+        return codec.decode(payload);
+    }
+}
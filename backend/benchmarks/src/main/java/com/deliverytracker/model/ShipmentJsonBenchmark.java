@@ -0,0 +1,61 @@
+package com.deliverytracker.model;
+
+import com.deliverytracker.benchmarks.SampleData;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.concurrent.TimeUnit;
+
+// Response bodies of GET /track/{trackingNumber} and GET /api/v1/shipments
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShipmentJsonBenchmark {
+    
+    private ObjectMapper objectMapper;
+    private Shipment shipment;
+    private byte[] shipmentJson;
+    
+    @State(Scope.Benchmark)
+    public static class PageState {
+        
+        @Param({"20", "200"})
+        private int pageSize;
+        
+        private Page<Shipment> page;
+        
+        @Setup
+        public void setUp() {
+            page = new PageImpl<>(SampleData.shipments(pageSize), PageRequest.of(0, pageSize), 100_000);
+        }
+    }
+    
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = SampleData.objectMapper();
+        shipment = SampleData.shipment(42);
+        shipmentJson = objectMapper.writeValueAsBytes(shipment);
+    }
+    
+    @Benchmark
+    public byte[] writeShipment() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(shipment);
+    }
+    
+    @Benchmark
+    public Shipment readShipment() throws Exception {
+        return objectMapper.readValue(shipmentJson, Shipment.class);
+    }
+    
+    @Benchmark
+    public byte[] writePage(PageState state) throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(state.page);
+    }
+}
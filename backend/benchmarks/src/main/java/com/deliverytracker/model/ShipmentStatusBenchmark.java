@@ -0,0 +1,38 @@
+package com.deliverytracker.model;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShipmentStatusBenchmark {
+    
+    private final ShipmentStatus[] statuses = ShipmentStatus.values();
+    
+    // Every (from, to) pair, as the batch status update checks them
+    @Benchmark
+    public int canTransitionToAllPairs() {
+        int legal = 0;
+        for (ShipmentStatus from : statuses) {
+            for (ShipmentStatus to : statuses) {
+                if (from.canTransitionTo(to)) {
+                    legal++;
+                }
+            }
+        }
+        return legal;
+    }
+    
+    @Benchmark
+    public void legalPredecessors(Blackhole blackhole) {
+        for (ShipmentStatus status : statuses) {
+            blackhole.consume(status.getLegalPredecessors());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.deliverytracker.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Token issue at login and the per-request verification done by the JWT filters
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+    
+    private JwtTokenProvider tokenProvider;
+    private JwtAuthenticationCache authenticationCache;
+    private String token;
+    
+    @Setup
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider("benchmark-secret-key-0123456789abcdef", 86_400_000);
+        UserDetails user = User.withUsername("user").password("{noop}user").roles("USER").build();
+        authenticationCache = new JwtAuthenticationCache(tokenProvider, new InMemoryUserDetailsManager(user),
+            new SimpleMeterRegistry(), 10_000, Duration.ofMinutes(10));
+        token = tokenProvider.generateToken("user");
+    }
+    
+    @Benchmark
+    public String generateToken() {
+        return tokenProvider.generateToken("user");
+    }
+    
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+    
+    @Benchmark
+    public String getUsernameFromToken() {
+        return tokenProvider.getUsernameFromToken(token);
+    }
+    
+    // Steady state for a returning client: the token was verified on an earlier request
+    @Benchmark
+    public Optional<UserDetails> resolveCached() {
+        return authenticationCache.resolve(token);
+    }
+}
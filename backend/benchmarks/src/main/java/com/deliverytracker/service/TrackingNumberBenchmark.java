@@ -0,0 +1,38 @@
+package com.deliverytracker.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TrackingNumberBenchmark {
+    
+    @Param({TimeOrderedTrackingNumberGenerator.NAME, RandomTrackingNumberGenerator.NAME})
+    public String generator;
+    
+    private TrackingNumberGenerator trackingNumbers;
+    
+    @Setup
+    public void setUp() {
+        trackingNumbers = generator.equals(RandomTrackingNumberGenerator.NAME)
+            ? new RandomTrackingNumberGenerator()
+            : new TimeOrderedTrackingNumberGenerator(() -> 1);
+    }
+    
+    @Benchmark
+    public String generate() {
+        return trackingNumbers.next();
+    }
+    
+    // Concurrent creates share the time-ordered generator's sequence
+    @Benchmark
+    @Threads(4)
+    public String generateContended() {
+        return trackingNumbers.next();
+    }
+}
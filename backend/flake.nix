@@ -19,7 +19,7 @@
 
         installPhase = ''
           mkdir -p $out/lib
-          install -Dm644 target/${pname}-${version}.jar $out/lib/app.jar
+          install -Dm644 target/${pname}-${version}-exec.jar $out/lib/app.jar
         '';
       };
 
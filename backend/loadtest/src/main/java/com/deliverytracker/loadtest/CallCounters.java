@@ -0,0 +1,101 @@
+package com.deliverytracker.loadtest;
+
+import com.deliverytracker.event.ShipmentEvent;
+import com.deliverytracker.event.ShipmentEventCodecs;
+import com.deliverytracker.service.KafkaProducerService;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.support.ProducerListener;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Installed into the application under test. Mongo commands are attributed to the operation whose request
+// thread issued them (servlet stack only); everything else counts as background work.
+public class CallCounters implements CommandListener, Filter, ProducerListener<Object, Object> {
+    
+    private static final ThreadLocal<Operation> CURRENT = new ThreadLocal<>();
+    
+    private final ObjectProvider<ShipmentEventCodecs> codecs;
+    private final Map<Operation, LongAdder> mongoCommands = counters();
+    private final Map<Operation, LongAdder> kafkaRecords = counters();
+    private final LongAdder backgroundMongoCommands = new LongAdder();
+    private final LongAdder backgroundKafkaRecords = new LongAdder();
+    
+    public CallCounters(ObjectProvider<ShipmentEventCodecs> codecs) {
+        this.codecs = codecs;
+    }
+    
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        String operation = ((HttpServletRequest) request).getHeader(Operation.HEADER);
+        if (operation == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        CURRENT.set(Operation.valueOf(operation));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            CURRENT.remove();
+        }
+    }
+    
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        Operation operation = CURRENT.get();
+        (operation != null ? mongoCommands.get(operation) : backgroundMongoCommands).increment();
+    }
+    
+    @Override
+    public void onSuccess(ProducerRecord<Object, Object> record, RecordMetadata metadata) {
+        Operation operation = null;
+        if (KafkaProducerService.TOPIC_NAME.equals(record.topic()) && record.value() instanceof byte[] payload) {
+            Header codec = record.headers().lastHeader(KafkaProducerService.CODEC_HEADER);
+            ShipmentEvent event = codecs.getObject().decode(codec != null ? codec.value() : null, payload);
+            operation = Operation.causing(event.getType());
+        }
+        (operation != null ? kafkaRecords.get(operation) : backgroundKafkaRecords).increment();
+    }
+    
+    public Snapshot snapshot() {
+        Map<Operation, Long> mongo = new EnumMap<>(Operation.class);
+        Map<Operation, Long> kafka = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            mongo.put(operation, mongoCommands.get(operation).sum());
+            kafka.put(operation, kafkaRecords.get(operation).sum());
+        }
+        return new Snapshot(mongo, kafka, backgroundMongoCommands.sum(), backgroundKafkaRecords.sum());
+    }
+    
+    public void reset() {
+        mongoCommands.values().forEach(LongAdder::reset);
+        kafkaRecords.values().forEach(LongAdder::reset);
+        backgroundMongoCommands.reset();
+        backgroundKafkaRecords.reset();
+    }
+    
+    private static Map<Operation, LongAdder> counters() {
+        Map<Operation, LongAdder> counters = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            counters.put(operation, new LongAdder());
+        }
+        return counters;
+    }
+    
+    public record Snapshot(Map<Operation, Long> mongoCommands, Map<Operation, Long> kafkaRecords,
+                           long backgroundMongoCommands, long backgroundKafkaRecords) {}
+}
@@ -0,0 +1,179 @@
+package com.deliverytracker.loadtest;
+
+import com.deliverytracker.model.ShipmentStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Closed-loop traffic: each worker issues its next request as soon as the previous one completes
+public class LoadDriver {
+    
+    // Recorded instead of an HTTP status when the request failed at the transport level
+    public static final int TRANSPORT_ERROR = 0;
+    
+    private static final String[] CITIES = {
+        "New York", "Los Angeles", "Chicago", "Houston", "Phoenix", "Philadelphia", "San Antonio", "San Diego",
+        "Dallas", "Austin", "Seattle", "Denver", "Boston", "Miami", "Atlanta", "Portland"
+    };
+    private static final int LIST_PAGES = 10;
+    private static final int LIST_PAGE_SIZE = 20;
+    
+    private final HttpClient client;
+    private final URI baseUri;
+    private final String authorization;
+    private final ShipmentPool pool;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong created = new AtomicLong();
+    
+    public LoadDriver(HttpClient client, URI baseUri, String token, ShipmentPool pool, Map<Operation, Integer> mix) {
+        this.client = client;
+        this.baseUri = baseUri;
+        this.authorization = "Bearer " + token;
+        this.pool = pool;
+        this.operations = mix.keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+    
+    public Map<Operation, OperationStats> run(int concurrency, Duration duration, long seed) {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Map<Operation, OperationStats>> perWorker = new ArrayList<>(concurrency);
+        
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+                perWorker.add(stats);
+                Random random = new Random(seed + i);
+                workers.submit(() -> work(stats, random, deadline));
+            }
+        }
+        
+        Map<Operation, OperationStats> merged = new EnumMap<>(Operation.class);
+        for (Map<Operation, OperationStats> stats : perWorker) {
+            stats.forEach((operation, workerStats) ->
+                merged.computeIfAbsent(operation, o -> new OperationStats()).add(workerStats));
+        }
+        return merged;
+    }
+    
+    private void work(Map<Operation, OperationStats> stats, Random random, long deadline) {
+        while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+            Operation operation = pick(random);
+            execute(operation, random, stats.computeIfAbsent(operation, o -> new OperationStats()));
+        }
+    }
+    
+    private Operation pick(Random random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+    
+    private void execute(Operation operation, Random random, OperationStats stats) {
+        switch (operation) {
+            case CREATE -> create(random, stats);
+            case TRACK -> send(operation, get("/api/v1/shipments/track/" + pool.random(random).trackingNumber()), stats);
+            case UPDATE -> update(random, stats);
+            case LIST -> send(operation, get("/api/v1/shipments?page=" + random.nextInt(LIST_PAGES)
+                + "&size=" + LIST_PAGE_SIZE), stats);
+        }
+    }
+    
+    private void create(Random random, OperationStats stats) {
+        String body = json(Map.of(
+            "origin", CITIES[random.nextInt(CITIES.length)],
+            "destination", CITIES[random.nextInt(CITIES.length)],
+            "description", "Load test parcel " + created.incrementAndGet()));
+        HttpResponse<String> response = send(Operation.CREATE, request("/api/v1/shipments")
+            .POST(HttpRequest.BodyPublishers.ofString(body)), stats);
+        
+        if (response != null && response.statusCode() == 201) {
+            JsonNode shipment = readTree(response.body());
+            pool.add(shipment.path("id").asText(), shipment.path("trackingNumber").asText(), ShipmentStatus.CREATED);
+        }
+    }
+    
+    private void update(Random random, OperationStats stats) {
+        ShipmentPool.Entry entry = pool.claimUpdatable(random);
+        if (entry == null) {
+            stats.skip();
+            return;
+        }
+        
+        ShipmentStatus target = entry.nextStatus(random);
+        HttpResponse<String> response = null;
+        try {
+            response = send(Operation.UPDATE, request("/api/v1/shipments/" + entry.id() + "/status")
+                .PUT(HttpRequest.BodyPublishers.ofString(json(Map.of("status", target.name())))), stats);
+        } finally {
+            entry.release(response != null && response.statusCode() == 200 ? target : null);
+        }
+    }
+    
+    private HttpResponse<String> send(Operation operation, HttpRequest.Builder request, OperationStats stats) {
+        HttpRequest built = request.header(Operation.HEADER, operation.name()).build();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(built, HttpResponse.BodyHandlers.ofString());
+            stats.record(System.nanoTime() - start, response.statusCode());
+            return response;
+        } catch (IOException e) {
+            stats.record(System.nanoTime() - start, TRANSPORT_ERROR);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+    
+    private HttpRequest.Builder get(String path) {
+        return request(path).GET();
+    }
+    
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+            .header("Authorization", authorization)
+            .header("Content-Type", "application/json")
+            .header("Accept", "application/json");
+    }
+    
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private JsonNode readTree(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unexpected response body: " + body, e);
+        }
+    }
+}
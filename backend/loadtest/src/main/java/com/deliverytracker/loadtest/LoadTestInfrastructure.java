@@ -0,0 +1,137 @@
+package com.deliverytracker.loadtest;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+// Where the application under test finds Mongo and Kafka
+public interface LoadTestInfrastructure extends AutoCloseable {
+    
+    String mongoUri();
+    
+    String kafkaBootstrapServers();
+    
+    String description();
+    
+    // Backend settings this infrastructure needs; arguments given on the command line take precedence
+    default List<String> applicationArgs() {
+        return List.of();
+    }
+    
+    @Override
+    void close();
+    
+    static LoadTestInfrastructure start(LoadTestOptions options) {
+        String mode = options.infrastructure();
+        if ("auto".equals(mode)) {
+            mode = DockerClientFactory.instance().isDockerAvailable() ? "containers" : "in-process";
+        }
+        return switch (mode) {
+            case "containers" -> new Containers();
+            case "in-process" -> new InProcess();
+            case "external" -> new External(options.mongoUri(), options.kafkaBootstrapServers());
+            default -> throw new IllegalArgumentException("Unknown infrastructure: " + mode);
+        };
+    }
+    
+    // Same Mongo major version as production, started as a single-node replica set
+    final class Containers implements LoadTestInfrastructure {
+        
+        private final MongoDBContainer mongo = new MongoDBContainer(DockerImageName.parse("mongo:6.0"));
+        private final KafkaContainer kafka = new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:7.5.3"));
+        
+        Containers() {
+            mongo.start();
+            kafka.start();
+        }
+        
+        @Override
+        public String mongoUri() {
+            return mongo.getReplicaSetUrl("deliverytracker");
+        }
+        
+        @Override
+        public String kafkaBootstrapServers() {
+            return kafka.getBootstrapServers();
+        }
+        
+        @Override
+        public String description() {
+            return "testcontainers (mongo:6.0, cp-kafka:7.5.3)";
+        }
+        
+        @Override
+        public void close() {
+            kafka.stop();
+            mongo.stop();
+        }
+    }
+    
+    // No Docker needed: an in-memory Mongo wire-protocol server and an embedded KRaft broker. Mongo latencies are
+    // not representative, but call counts and the application's own overhead are.
+    final class InProcess implements LoadTestInfrastructure {
+        
+        private final MongoServer mongo = new MongoServer(new MemoryBackend());
+        private final EmbeddedKafkaKraftBroker kafka = new EmbeddedKafkaKraftBroker(1, 6);
+        private final String mongoUri;
+        
+        InProcess() {
+            InetSocketAddress address = mongo.bind();
+            mongoUri = "mongodb://" + address.getHostString() + ":" + address.getPort() + "/deliverytracker";
+            kafka.afterPropertiesSet();
+        }
+        
+        @Override
+        public String mongoUri() {
+            return mongoUri;
+        }
+        
+        @Override
+        public String kafkaBootstrapServers() {
+            return kafka.getBrokersAsString();
+        }
+        
+        @Override
+        public String description() {
+            return "in-process (mongo-java-server, embedded KRaft Kafka)";
+        }
+        
+        // mongo-java-server has no transactions
+        @Override
+        public List<String> applicationArgs() {
+            return List.of("--app.outbox.transactional=false");
+        }
+        
+        @Override
+        public void close() {
+            kafka.destroy();
+            mongo.shutdownNow();
+        }
+    }
+    
+    record External(String mongoUri, String kafkaBootstrapServers) implements LoadTestInfrastructure {
+        
+        public External {
+            if (mongoUri == null || kafkaBootstrapServers == null) {
+                throw new IllegalArgumentException("--infra=external needs --mongo-uri and --kafka");
+            }
+        }
+        
+        @Override
+        public String description() {
+            // The Mongo URI may carry credentials, so it stays out of the report
+            return "external (Kafka at " + kafkaBootstrapServers + ")";
+        }
+        
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.deliverytracker.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Parsed from --name=value arguments; anything not listed here is passed through to the application
+public record LoadTestOptions(
+        String infrastructure,
+        String mongoUri,
+        String kafkaBootstrapServers,
+        int shipments,
+        int concurrency,
+        Duration warmup,
+        Duration duration,
+        Map<Operation, Integer> mix,
+        List<String> threadModes,
+        List<String> profiles,
+        String password,
+        long seed,
+        Path report,
+        List<String> applicationArgs) {
+    
+    private static final String DEFAULT_MIX = "create:10,track:60,update:20,list:10";
+    
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            String name = separator > 2 ? arg.substring(2, separator) : "";
+            if (!arg.startsWith("--") || name.contains(".")) {
+                applicationArgs.add(arg);
+            } else {
+                values.put(name, arg.substring(separator + 1));
+            }
+        }
+        
+        return new LoadTestOptions(
+            values.getOrDefault("infra", "auto"),
+            values.get("mongo-uri"),
+            values.get("kafka"),
+            Integer.parseInt(values.getOrDefault("shipments", "10000")),
+            Integer.parseInt(values.getOrDefault("concurrency", "64")),
+            Duration.parse(values.getOrDefault("warmup", "PT10S")),
+            Duration.parse(values.getOrDefault("duration", "PT60S")),
+            parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+            list(values.getOrDefault("threads", "platform")),
+            list(values.getOrDefault("profiles", "")),
+            values.getOrDefault("password", "admin123"),
+            Long.parseLong(values.getOrDefault("seed", "42")),
+            Path.of(values.getOrDefault("report", "target/loadtest-report.json")),
+            applicationArgs);
+    }
+    
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split(":");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("Traffic mix has no operations: " + value);
+        }
+        return mix;
+    }
+    
+    private static List<String> list(String value) {
+        return Arrays.stream(value.split(",")).map(String::trim).filter(item -> !item.isEmpty()).toList();
+    }
+}
@@ -0,0 +1,88 @@
+package com.deliverytracker.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public record LoadTestReport(
+        String threads,
+        List<String> profiles,
+        String infrastructure,
+        int shipments,
+        int concurrency,
+        double durationSeconds,
+        double throughput,
+        List<OperationReport> operations,
+        long backgroundMongoCommands,
+        long backgroundKafkaRecords) {
+    
+    public record OperationReport(
+            Operation operation,
+            String endpoint,
+            long requests,
+            double throughput,
+            Map<Integer, Long> errorsByStatus,
+            long skipped,
+            double meanMs,
+            double p50Ms,
+            double p90Ms,
+            double p99Ms,
+            double p999Ms,
+            double maxMs,
+            long mongoCommands,
+            double mongoCommandsPerRequest,
+            long kafkaRecords,
+            double kafkaRecordsPerRequest) {}
+    
+    public static LoadTestReport of(String threads, LoadTestOptions options, String infrastructure, Duration elapsed,
+                                    Map<Operation, OperationStats> stats, CallCounters.Snapshot calls) {
+        double seconds = elapsed.toNanos() / 1e9;
+        List<OperationReport> operations = new ArrayList<>();
+        long total = 0;
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            Operation operation = entry.getKey();
+            Histogram latency = entry.getValue().getLatencyMicros();
+            long requests = latency.getTotalCount();
+            long mongo = calls.mongoCommands().get(operation);
+            long kafka = calls.kafkaRecords().get(operation);
+            total += requests;
+            operations.add(new OperationReport(operation, operation.getEndpoint(), requests, requests / seconds,
+                entry.getValue().getErrorsByStatus(), entry.getValue().getSkipped(),
+                latency.getMean() / 1_000.0, millis(latency, 50), millis(latency, 90), millis(latency, 99),
+                millis(latency, 99.9), latency.getMaxValue() / 1_000.0,
+                mongo, perRequest(mongo, requests), kafka, perRequest(kafka, requests)));
+        }
+        return new LoadTestReport(threads, options.profiles(), infrastructure, options.shipments(),
+            options.concurrency(), seconds, total / seconds, operations,
+            calls.backgroundMongoCommands(), calls.backgroundKafkaRecords());
+    }
+    
+    public void print(PrintStream out) {
+        out.printf("%n== %s threads, profiles %s, %d workers, %.0fs on %s%n",
+            threads, profiles, concurrency, durationSeconds, infrastructure);
+        out.printf("%-8s %10s %10s %9s %9s %9s %9s %9s %9s %10s %10s  %s%n", "op", "requests", "req/s",
+            "mean ms", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "mongo/req", "kafka/req", "errors");
+        for (OperationReport operation : operations) {
+            out.printf("%-8s %10d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f %10.2f %10.2f  %s%s%n",
+                operation.operation(), operation.requests(), operation.throughput(), operation.meanMs(),
+                operation.p50Ms(), operation.p90Ms(), operation.p99Ms(), operation.p999Ms(), operation.maxMs(),
+                operation.mongoCommandsPerRequest(), operation.kafkaRecordsPerRequest(),
+                operation.errorsByStatus().isEmpty() ? "-" : operation.errorsByStatus(),
+                operation.skipped() > 0 ? " (" + operation.skipped() + " skipped)" : "");
+        }
+        out.printf("total %.1f req/s; background: %d Mongo commands, %d Kafka records%n",
+            throughput, backgroundMongoCommands, backgroundKafkaRecords);
+    }
+    
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1_000.0;
+    }
+    
+    private static double perRequest(long calls, long requests) {
+        return requests > 0 ? (double) calls / requests : 0;
+    }
+}
@@ -0,0 +1,201 @@
+package com.deliverytracker.loadtest;
+
+import com.deliverytracker.DeliveryTrackerApplication;
+import com.deliverytracker.dto.BatchItemResult;
+import com.deliverytracker.dto.ShipmentCreateRequest;
+import com.deliverytracker.event.ShipmentEventCodecs;
+import com.deliverytracker.model.OutboxEvent;
+import com.deliverytracker.repository.OutboxEventRepository;
+import com.deliverytracker.service.ShipmentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.kafka.support.ProducerListener;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+// Starts Mongo and Kafka (containers or in-process stand-ins), then for each thread mode boots the backend,
+// seeds shipments, drives the traffic mix and reports throughput, latency percentiles and call counts.
+public final class LoadTestRunner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestRunner.class);
+    
+    private static final int SEED_BATCH_SIZE = 1000;
+    private static final Duration KAFKA_DRAIN = Duration.ofSeconds(3);
+    private static final Duration SEED_RELAY_TIMEOUT = Duration.ofMinutes(5);
+    private static final String[] CITIES = {"Boston", "Denver", "Seattle", "Austin", "Miami", "Atlanta"};
+    
+    private LoadTestRunner() {}
+    
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        List<LoadTestReport> reports = new ArrayList<>();
+        
+        try (LoadTestInfrastructure infrastructure = LoadTestInfrastructure.start(options)) {
+            for (String threads : options.threadModes()) {
+                reports.add(run(options, infrastructure, threads));
+            }
+        }
+        
+        reports.forEach(report -> report.print(System.out));
+        
+        Files.createDirectories(options.report().toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(options.report().toFile(), reports);
+        System.out.println("\nReport written to " + options.report().toAbsolutePath());
+        System.exit(0);
+    }
+    
+    private static LoadTestReport run(LoadTestOptions options, LoadTestInfrastructure infrastructure, String threads)
+            throws Exception {
+        boolean virtual = switch (threads) {
+            case "virtual" -> true;
+            case "platform" -> false;
+            default -> throw new IllegalArgumentException("Unknown thread mode: " + threads);
+        };
+        
+        List<String> profiles = new ArrayList<>(options.profiles());
+        if (virtual) {
+            profiles.add("virtual-threads");
+        }
+        
+        List<String> args = new ArrayList<>(List.of(
+            "--server.port=0",
+            "--spring.data.mongodb.uri=" + infrastructure.mongoUri(),
+            // The URI takes precedence; these only satisfy the credential placeholders in application.yml
+            "--spring.data.mongodb.username=loadtest",
+            "--spring.data.mongodb.password=loadtest",
+            "--spring.kafka.bootstrap-servers=" + infrastructure.kafkaBootstrapServers(),
+            "--spring.threads.virtual.enabled=" + virtual,
+            // application.yml turns these up; request-level logging would dominate the measured latencies
+            "--logging.level.com.deliverytracker=WARN",
+            "--logging.level.org.springframework.security=WARN",
+            "--logging.level.org.springframework.kafka=WARN"));
+        // A repeated option would be joined into a list, so the infrastructure's defaults yield to given ones
+        Set<String> given = options.applicationArgs().stream()
+            .map(arg -> arg.split("=", 2)[0])
+            .collect(Collectors.toSet());
+        infrastructure.applicationArgs().stream()
+            .filter(arg -> !given.contains(arg.split("=", 2)[0]))
+            .forEach(args::add);
+        args.addAll(options.applicationArgs());
+        
+        CallCounters[] counters = new CallCounters[1];
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DeliveryTrackerApplication.class)
+            .profiles(profiles.toArray(String[]::new))
+            .initializers(applicationContext -> register((GenericApplicationContext) applicationContext, counters))
+            .run(args.toArray(String[]::new));
+        
+        try {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            URI baseUri = URI.create("http://localhost:" + port);
+            HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+            
+            ShipmentPool pool = seed(context.getBean(ShipmentService.class), options);
+            awaitOutboxDrained(context.getBean(OutboxEventRepository.class));
+            LoadDriver driver = new LoadDriver(client, baseUri, login(client, baseUri, options), pool, options.mix());
+            
+            logger.warn("Warming up {} threads for {}", threads, options.warmup());
+            driver.run(options.concurrency(), options.warmup(), options.seed());
+            counters[0].reset();
+            
+            logger.warn("Measuring {} threads for {}", threads, options.duration());
+            long start = System.nanoTime();
+            Map<Operation, OperationStats> stats = driver.run(options.concurrency(), options.duration(), options.seed() + 1);
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            
+            // Outbox events from the last requests are still being relayed to Kafka
+            Thread.sleep(KAFKA_DRAIN.toMillis());
+            return LoadTestReport.of(threads, options, infrastructure.description(), elapsed, stats, counters[0].snapshot());
+        } finally {
+            context.getBean(MongoTemplate.class).getDb().drop();
+            context.close();
+        }
+    }
+    
+    private static void register(GenericApplicationContext context, CallCounters[] counters) {
+        CallCounters callCounters = new CallCounters(
+            context.getDefaultListableBeanFactory().getBeanProvider(ShipmentEventCodecs.class));
+        counters[0] = callCounters;
+        context.registerBean("loadTestCommandListener", MongoClientSettingsBuilderCustomizer.class,
+            () -> settings -> settings.addCommandListener(callCounters));
+        // Replaces the default logging listener the KafkaTemplate is built with
+        context.registerBean("loadTestProducerListener", ProducerListener.class, () -> callCounters);
+        context.registerBean("loadTestOperationFilter", FilterRegistrationBean.class,
+            () -> new FilterRegistrationBean<>(callCounters));
+    }
+    
+    // Seeded through the service rather than HTTP so seeding time does not depend on the endpoint under test
+    private static ShipmentPool seed(ShipmentService shipmentService, LoadTestOptions options) {
+        logger.warn("Seeding {} shipments", options.shipments());
+        ShipmentPool pool = new ShipmentPool();
+        Random random = new Random(options.seed());
+        for (int offset = 0; offset < options.shipments(); offset += SEED_BATCH_SIZE) {
+            List<ShipmentCreateRequest> batch = new ArrayList<>();
+            for (int i = offset; i < Math.min(offset + SEED_BATCH_SIZE, options.shipments()); i++) {
+                ShipmentCreateRequest request = new ShipmentCreateRequest(
+                    CITIES[random.nextInt(CITIES.length)], CITIES[random.nextInt(CITIES.length)]);
+                request.setDescription("Seeded parcel " + i);
+                batch.add(request);
+            }
+            for (BatchItemResult result : shipmentService.createShipments(batch).getResults()) {
+                if (result.isSuccess()) {
+                    pool.add(result.getId(), result.getTrackingNumber(), result.getStatus());
+                }
+            }
+        }
+        if (pool.size() == 0) {
+            throw new IllegalStateException("No shipments could be seeded");
+        }
+        return pool;
+    }
+    
+    // Otherwise the relay is still publishing seed events while the measured phase runs
+    private static void awaitOutboxDrained(OutboxEventRepository outboxRepository) throws InterruptedException {
+        long deadline = System.nanoTime() + SEED_RELAY_TIMEOUT.toNanos();
+        long pending;
+        while ((pending = outboxRepository.countByStatus(OutboxEvent.Status.PENDING)) > 0) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException(pending + " seed events still unpublished after " + SEED_RELAY_TIMEOUT);
+            }
+            Thread.sleep(200);
+        }
+    }
+    
+    private static String login(HttpClient client, URI baseUri, LoadTestOptions options)
+            throws IOException, InterruptedException {
+        String body = "{\"username\":\"admin\",\"password\":\"" + options.password() + "\"}";
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(baseUri.resolve("/api/v1/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(),
+            HttpResponse.BodyHandlers.ofString());
+        String token = new ObjectMapper().readTree(response.body()).path("accessToken").asText(null);
+        if (token == null) {
+            throw new IllegalStateException("Login failed: " + response.body());
+        }
+        return token;
+    }
+}
@@ -0,0 +1,33 @@
+package com.deliverytracker.loadtest;
+
+import com.deliverytracker.event.ShipmentEventType;
+
+public enum Operation {
+    
+    CREATE("POST /api/v1/shipments"),
+    TRACK("GET /api/v1/shipments/track/{trackingNumber}"),
+    UPDATE("PUT /api/v1/shipments/{id}/status"),
+    LIST("GET /api/v1/shipments?page&size");
+    
+    // Sent with every request so the application-side counters can attribute Mongo commands
+    public static final String HEADER = "X-Load-Operation";
+    
+    private final String endpoint;
+    
+    Operation(String endpoint) {
+        this.endpoint = endpoint;
+    }
+    
+    public String getEndpoint() {
+        return endpoint;
+    }
+    
+    // Kafka records are published by the outbox relay after the request returns, so they are attributed by event type
+    public static Operation causing(ShipmentEventType type) {
+        return switch (type) {
+            case SHIPMENT_CREATED -> CREATE;
+            case SHIPMENT_STATUS_UPDATED -> UPDATE;
+            default -> null;
+        };
+    }
+}
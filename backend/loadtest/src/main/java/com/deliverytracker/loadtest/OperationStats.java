@@ -0,0 +1,43 @@
+package com.deliverytracker.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+// Per-worker and therefore unsynchronized; workers' stats are merged once the run ends
+public class OperationStats {
+    
+    private final Histogram latencyMicros = new Histogram(3);
+    private final Map<Integer, Long> errorsByStatus = new TreeMap<>();
+    private long skipped;
+    
+    public void record(long latencyNanos, int httpStatus) {
+        latencyMicros.recordValue(Math.max(1, latencyNanos / 1_000));
+        if (httpStatus < 200 || httpStatus >= 300) {
+            errorsByStatus.merge(httpStatus, 1L, Long::sum);
+        }
+    }
+    
+    public void skip() {
+        skipped++;
+    }
+    
+    public void add(OperationStats other) {
+        latencyMicros.add(other.latencyMicros);
+        other.errorsByStatus.forEach((status, count) -> errorsByStatus.merge(status, count, Long::sum));
+        skipped += other.skipped;
+    }
+    
+    public Histogram getLatencyMicros() {
+        return latencyMicros;
+    }
+    
+    public Map<Integer, Long> getErrorsByStatus() {
+        return errorsByStatus;
+    }
+    
+    public long getSkipped() {
+        return skipped;
+    }
+}
@@ -0,0 +1,89 @@
+package com.deliverytracker.loadtest;
+
+import com.deliverytracker.model.ShipmentStatus;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Seeded and newly created shipments the traffic mix tracks and updates
+public class ShipmentPool {
+    
+    private static final int CLAIM_ATTEMPTS = 8;
+    
+    private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    
+    public void add(String id, String trackingNumber, ShipmentStatus status) {
+        Entry entry = new Entry(id, trackingNumber, status);
+        entries.put(size.getAndIncrement(), entry);
+    }
+    
+    public int size() {
+        return size.get();
+    }
+    
+    public Entry random(Random random) {
+        Entry entry = null;
+        while (entry == null) {
+            entry = entries.get(random.nextInt(size.get()));
+        }
+        return entry;
+    }
+    
+    // One update in flight per shipment, so the harness never causes its own 409s; terminal shipments are skipped
+    public Entry claimUpdatable(Random random) {
+        for (int attempt = 0; attempt < CLAIM_ATTEMPTS; attempt++) {
+            Entry entry = random(random);
+            if (!entry.status.isTerminal() && entry.busy.compareAndSet(false, true)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+    
+    public static final class Entry {
+        
+        private final String id;
+        private final String trackingNumber;
+        private final AtomicBoolean busy = new AtomicBoolean();
+        private volatile ShipmentStatus status;
+        
+        private Entry(String id, String trackingNumber, ShipmentStatus status) {
+            this.id = id;
+            this.trackingNumber = trackingNumber;
+            this.status = status;
+        }
+        
+        public String id() {
+            return id;
+        }
+        
+        public String trackingNumber() {
+            return trackingNumber;
+        }
+        
+        public ShipmentStatus status() {
+            return status;
+        }
+        
+        // Keeps shipments moving forward; cancellation would retire them after a single update
+        public ShipmentStatus nextStatus(Random random) {
+            List<ShipmentStatus> targets = Arrays.stream(ShipmentStatus.values())
+                .filter(target -> target != ShipmentStatus.CANCELLED && status.canTransitionTo(target))
+                .toList();
+            return targets.get(random.nextInt(targets.size()));
+        }
+        
+        public void release(ShipmentStatus newStatus) {
+            if (newStatus != null) {
+                status = newStatus;
+            }
+            busy.set(false);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.deliverytracker.cache;
+
+import com.deliverytracker.model.Shipment;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+@Component
+public class ShipmentTrackingCache {
+    
+    private static final String CACHE_NAME = "shipments.tracking";
+    private static final int GENERATION_STRIPES = 1024;
+    
+    private final Cache<String, Shipment> cache;
+    private final SingleFlight<String, Optional<Shipment>> lookups;
+    
+    // Bumped by every invalidation before the entry is removed. A load only fills the cache if the generation of
+    // its number is unchanged since the load started, so a lookup that was already querying when the shipment
+    // changed cannot put the old copy back. Striped to bound memory; numbers sharing a stripe only lose a fill.
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    
+    @Autowired
+    public ShipmentTrackingCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.tracking-cache.max-size:10000}") long maxSize,
+            @Value("${app.tracking-cache.ttl:PT30S}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        
+        // Exposes cache.gets{result=hit|miss}, cache.evictions and cache.size
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        
+        // Exposes shipments.tracking.lookups{result=loaded|coalesced} and shipments.tracking.lookups.inflight
+        this.lookups = new SingleFlight<>(meterRegistry, "shipments.tracking.lookups");
+    }
+    
+    public Optional<Shipment> get(String trackingNumber, Function<String, Optional<Shipment>> loader) {
+        Shipment cached = cache.getIfPresent(trackingNumber);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        
+        // Misses are not cached so a newly created shipment is visible immediately. Concurrent misses for the
+        // same number share one query, so a burst of tracking requests costs a single round trip.
+        return lookups.load(trackingNumber, key -> {
+            long generation = generation(key);
+            Optional<Shipment> loaded = loader.apply(key);
+            loaded.ifPresent(shipment -> putIfCurrent(shipment, generation));
+            return loaded;
+        });
+    }
+    
+    // Non-blocking callers look up and fill the cache themselves
+    public Optional<Shipment> getIfPresent(String trackingNumber) {
+        return Optional.ofNullable(cache.getIfPresent(trackingNumber));
+    }
+    
+    // Taken before querying; pass it to putIfCurrent with the result
+    public long generation(String trackingNumber) {
+        return generations.get(stripe(trackingNumber));
+    }
+    
+    // Checked inside compute, so an invalidation either runs first and the put is dropped, or runs after and
+    // removes what was put
+    public void putIfCurrent(Shipment shipment, long generation) {
+        String trackingNumber = shipment.getTrackingNumber();
+        cache.asMap().compute(trackingNumber, (key, cached) ->
+            generation(key) == generation ? shipment : cached);
+    }
+    
+    public void invalidate(String trackingNumber) {
+        if (trackingNumber != null) {
+            generations.incrementAndGet(stripe(trackingNumber));
+            lookups.forget(trackingNumber);
+            cache.invalidate(trackingNumber);
+        }
+    }
+    
+    // Keeps an entry that already reflects the change, e.g. when the change was made by this instance
+    public boolean invalidate(String trackingNumber, LocalDateTime changedAt) {
+        if (trackingNumber == null) {
+            return false;
+        }
+        generations.incrementAndGet(stripe(trackingNumber));
+        lookups.forget(trackingNumber);
+        if (changedAt == null) {
+            return cache.asMap().remove(trackingNumber) != null;
+        }
+        boolean[] removed = new boolean[1];
+        cache.asMap().computeIfPresent(trackingNumber, (key, cached) -> {
+            if (cached.getUpdatedAt() != null && !cached.getUpdatedAt().isBefore(changedAt)) {
+                return cached;
+            }
+            removed[0] = true;
+            return null;
+        });
+        return removed[0];
+    }
+    
+    public void invalidateAll() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+        lookups.forgetAll();
+        cache.invalidateAll();
+    }
+    
+    private static int stripe(String trackingNumber) {
+        return Math.floorMod(trackingNumber.hashCode(), GENERATION_STRIPES);
+    }
+}
@@ -0,0 +1,74 @@
+package com.deliverytracker.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+// Collapses concurrent loads of the same key into one: the first caller runs the loader, callers arriving while
+// it is in flight wait for and share its result. Nothing is kept once the load completes.
+public class SingleFlight<K, V> {
+    
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter loaded;
+    private final Counter coalesced;
+    
+    public SingleFlight(MeterRegistry meterRegistry, String name) {
+        this.loaded = Counter.builder(name)
+            .tag("result", "loaded")
+            .register(meterRegistry);
+        this.coalesced = Counter.builder(name)
+            .tag("result", "coalesced")
+            .register(meterRegistry);
+        meterRegistry.gauge(name + ".inflight", inFlight, ConcurrentMap::size);
+    }
+    
+    public V load(K key, Function<K, V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+        
+        loaded.increment();
+        try {
+            V value = loader.apply(key);
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+    
+    // Callers arriving after this start a new load instead of joining one that may predate a write
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+    
+    public void forgetAll() {
+        inFlight.clear();
+    }
+    
+    private V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            // Followers see the leader's exception as thrown, not wrapped
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
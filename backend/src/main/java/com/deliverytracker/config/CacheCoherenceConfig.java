@@ -0,0 +1,28 @@
+package com.deliverytracker.config;
+
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+@Configuration
+public class CacheCoherenceConfig {
+    
+    public static final String LISTENER_FACTORY = "cacheCoherenceListenerFactory";
+    
+    // Same settings as the default factory, but offsets are never committed: a restarted instance starts with
+    // empty caches and only needs changes from then on, and a group without offsets is dropped by the broker
+    // once its instance is gone instead of piling up with every pod name
+    @Bean(LISTENER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> cacheCoherenceListenerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setBatchListener(true);
+        return factory;
+    }
+}
@@ -0,0 +1,28 @@
+package com.deliverytracker.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.UUID;
+
+@Component
+public class InstanceInfo {
+    
+    private final String instanceId;
+    
+    public InstanceInfo(@Value("${app.instance-id:}") String configuredId) {
+        // Resolved once: ${random.uuid} would yield a different value on every lookup
+        if (StringUtils.hasText(configuredId)) {
+            this.instanceId = configuredId;
+        } else if (StringUtils.hasText(System.getenv("HOSTNAME"))) {
+            this.instanceId = System.getenv("HOSTNAME");
+        } else {
+            this.instanceId = UUID.randomUUID().toString();
+        }
+    }
+    
+    public String getInstanceId() {
+        return instanceId;
+    }
+}
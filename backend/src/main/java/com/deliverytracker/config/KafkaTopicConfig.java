@@ -0,0 +1,22 @@
+package com.deliverytracker.config;
+
+import com.deliverytracker.service.KafkaProducerService;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaTopicConfig {
+    
+    // Partitions bound the read-model consumer's useful concurrency across all instances
+    @Bean
+    public NewTopic shipmentEventsTopic(@Value("${app.events.partitions:6}") int partitions,
+                                        @Value("${app.events.replication-factor:1}") short replicationFactor) {
+        return TopicBuilder.name(KafkaProducerService.TOPIC_NAME)
+            .partitions(partitions)
+            .replicas(replicationFactor)
+            .build();
+    }
+}
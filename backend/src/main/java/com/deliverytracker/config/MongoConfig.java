@@ -1,11 +1,21 @@
 package com.deliverytracker.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.ReactiveMongoTransactionManager;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
 import org.springframework.data.domain.AuditorAware;
 
+import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 @EnableMongoAuditing
@@ -15,4 +25,28 @@ public class MongoConfig {
     public AuditorAware<String> auditorProvider() {
         return () -> Optional.of("system");
     }
+
+    // Every blocked request holds a connection, so the pool bounds how much load reaches Mongo
+    @Bean
+    public MongoClientSettingsBuilderCustomizer connectionPoolCustomizer(
+            @Value("${app.mongo.max-pool-size:100}") int maxPoolSize,
+            @Value("${app.mongo.max-wait:PT2M}") Duration maxWait) {
+        return settings -> settings.applyToConnectionPoolSettings(pool -> pool
+            .maxSize(maxPoolSize)
+            .maxWaitTime(maxWait.toMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    // Multi-document transactions need a replica set; a single-node one is enough
+    @Bean
+    @ConditionalOnProperty(name = "app.outbox.transactional", havingValue = "true", matchIfMissing = true)
+    public MongoTransactionManager transactionManager(MongoDatabaseFactory databaseFactory) {
+        return new MongoTransactionManager(databaseFactory);
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    @ConditionalOnProperty(name = "app.outbox.transactional", havingValue = "true", matchIfMissing = true)
+    public ReactiveMongoTransactionManager reactiveTransactionManager(ReactiveMongoDatabaseFactory databaseFactory) {
+        return new ReactiveMongoTransactionManager(databaseFactory);
+    }
 }
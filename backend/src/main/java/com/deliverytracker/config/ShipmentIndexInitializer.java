@@ -0,0 +1,86 @@
+package com.deliverytracker.config;
+
+import com.deliverytracker.model.Shipment;
+import com.deliverytracker.model.ShipmentArchiveEntry;
+import com.deliverytracker.model.ShipmentStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+// Auto index creation is off, so the indexes the shipment queries rely on are declared here
+@Component
+public class ShipmentIndexInitializer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ShipmentIndexInitializer.class);
+    
+    private final MongoTemplate mongoTemplate;
+    
+    @Autowired
+    public ShipmentIndexInitializer(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        IndexOperations indexOps = mongoTemplate.indexOps(Shipment.class);
+        
+        // Same name @Indexed would use, so an index created by an earlier auto-index run is not duplicated
+        indexOps.ensureIndex(new Index().on("trackingNumber", Sort.Direction.ASC).unique().named("trackingNumber"));
+        
+        // Keyset pagination: newest first with _id as the tie-breaker
+        indexOps.ensureIndex(new Index()
+            .on("createdAt", Sort.Direction.DESC)
+            .on("_id", Sort.Direction.DESC)
+            .named("createdAt_id"));
+        indexOps.ensureIndex(new Index()
+            .on("status", Sort.Direction.ASC)
+            .on("createdAt", Sort.Direction.DESC)
+            .on("_id", Sort.Direction.DESC)
+            .named("status_createdAt_id"));
+        
+        // findByStatus, countByStatus (count scan) and status-filtered overdue lookups
+        indexOps.ensureIndex(new Index()
+            .on("status", Sort.Direction.ASC)
+            .on("estimatedDelivery", Sort.Direction.ASC)
+            .named("status_estimatedDelivery"));
+        
+        // Overdue checks only ever look at open shipments, so the index skips the terminal majority.
+        // Queries must filter with status $in activeStatuses() for the planner to pick it.
+        List<String> active = ShipmentStatus.activeStatuses().stream().map(Enum::name).toList();
+        indexOps.ensureIndex(new Index()
+            .on("estimatedDelivery", Sort.Direction.ASC)
+            .on("status", Sort.Direction.ASC)
+            .partial(PartialIndexFilter.of(where("status").in(active)))
+            .named("open_estimatedDelivery_status"));
+        
+        // Archiving candidates; the live collection only keeps terminal shipments younger than app.archive.min-age
+        List<String> terminal = ShipmentStatus.terminalStatuses().stream().map(Enum::name).toList();
+        indexOps.ensureIndex(new Index()
+            .on("updatedAt", Sort.Direction.ASC)
+            .partial(PartialIndexFilter.of(where("status").in(terminal)))
+            .named("terminal_updatedAt"));
+        
+        // Location search: exact normalized keys and anchored prefixes over the multikey token array
+        indexOps.ensureIndex(new Index().on("originKey", Sort.Direction.ASC).named("originKey"));
+        indexOps.ensureIndex(new Index().on("destinationKey", Sort.Direction.ASC).named("destinationKey"));
+        indexOps.ensureIndex(new Index().on("locationTokens", Sort.Direction.ASC).named("locationTokens"));
+        
+        // Archived shipments per status, recounted by the statistics reconcile
+        mongoTemplate.indexOps(ShipmentArchiveEntry.class)
+            .ensureIndex(new Index().on("status", Sort.Direction.ASC).named("status"));
+        
+        logger.info("Shipment indexes ensured");
+    }
+}
@@ -0,0 +1,88 @@
+package com.deliverytracker.config;
+
+import com.deliverytracker.security.StompAuthChannelInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+    
+    public static final String BROKER_PREFIX = "/topic";
+    public static final String GLOBAL_TOPIC = BROKER_PREFIX + "/shipments";
+    public static final String TRACKING_TOPIC_PREFIX = BROKER_PREFIX + "/tracking/";
+    
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+    private final Duration sendTimeLimit;
+    private final int sendBufferSizeLimit;
+    private final Duration heartbeat;
+    private final int outboundPoolSize;
+    
+    @Autowired
+    public WebSocketConfig(StompAuthChannelInterceptor stompAuthChannelInterceptor,
+                           @Value("${app.websocket.send-time-limit:PT10S}") Duration sendTimeLimit,
+                           @Value("${app.websocket.send-buffer-size-limit:524288}") int sendBufferSizeLimit,
+                           @Value("${app.websocket.heartbeat:PT10S}") Duration heartbeat,
+                           @Value("${app.websocket.outbound-pool-size:8}") int outboundPoolSize) {
+        this.stompAuthChannelInterceptor = stompAuthChannelInterceptor;
+        this.sendTimeLimit = sendTimeLimit;
+        this.sendBufferSizeLimit = sendBufferSizeLimit;
+        this.heartbeat = heartbeat;
+        this.outboundPoolSize = outboundPoolSize;
+    }
+    
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint("/ws").setAllowedOriginPatterns("*");
+    }
+    
+    // A bean so it is shut down with the context; not an autowire candidate, so @Scheduled keeps resolving
+    // the same scheduler it did before
+    @Bean(autowireCandidate = false)
+    public ThreadPoolTaskScheduler webSocketHeartbeatScheduler() {
+        ThreadPoolTaskScheduler heartbeatScheduler = new ThreadPoolTaskScheduler();
+        heartbeatScheduler.setPoolSize(1);
+        heartbeatScheduler.setThreadNamePrefix("ws-heartbeat-");
+        return heartbeatScheduler;
+    }
+    
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        registry.enableSimpleBroker(BROKER_PREFIX)
+            .setHeartbeatValue(new long[] {heartbeat.toMillis(), heartbeat.toMillis()})
+            .setTaskScheduler(webSocketHeartbeatScheduler());
+        registry.setApplicationDestinationPrefixes("/app");
+    }
+    
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthChannelInterceptor);
+    }
+    
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor().corePoolSize(outboundPoolSize).maxPoolSize(outboundPoolSize);
+    }
+    
+    // Sessions that cannot drain their buffer within the limits are closed instead of
+    // holding broker threads and memory for everyone else
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit((int) sendTimeLimit.toMillis())
+            .setSendBufferSizeLimit(sendBufferSizeLimit)
+            .setTimeToFirstMessage((int) sendTimeLimit.toMillis());
+    }
+}
@@ -0,0 +1,66 @@
+package com.deliverytracker.controller;
+
+import com.deliverytracker.dto.QueryPlanReport;
+import com.deliverytracker.service.OutboxService;
+import com.deliverytracker.service.QueryPlanService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/v1/admin")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@Tag(name = "Administration", description = "Operational endpoints (ADMIN role)")
+public class AdminController {
+    
+    private final OutboxService outboxService;
+    private final QueryPlanService queryPlanService;
+    
+    @Autowired
+    public AdminController(OutboxService outboxService, QueryPlanService queryPlanService) {
+        this.outboxService = outboxService;
+        this.queryPlanService = queryPlanService;
+    }
+    
+    @PostMapping("/outbox/replay")
+    @Operation(summary = "Re-publish outbox events from an event ID or a point in time")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Events re-queued for publishing"),
+        @ApiResponse(responseCode = "400", description = "Neither or an invalid position was given")
+    })
+    public ResponseEntity<Map<String, Long>> replayOutbox(
+            @Parameter(description = "First outbox event ID to replay (inclusive)")
+            @RequestParam(required = false) String fromEventId,
+            @Parameter(description = "Replay events created at or after this time")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from) {
+        long requeued;
+        if (fromEventId != null && ObjectId.isValid(fromEventId)) {
+            requeued = outboxService.replayFrom(fromEventId);
+        } else if (fromEventId == null && from != null) {
+            requeued = outboxService.replayFrom(from);
+        } else {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(Map.of("requeued", requeued));
+    }
+    
+    @GetMapping("/query-plans")
+    @Operation(summary = "Explain every shipment repository query and report index usage")
+    @ApiResponse(responseCode = "200", description = "Query plans retrieved successfully")
+    public ResponseEntity<List<QueryPlanReport>> explainQueries() {
+        return ResponseEntity.ok(queryPlanService.explainRepositoryQueries());
+    }
+}
@@ -0,0 +1,67 @@
+package com.deliverytracker.controller;
+
+import com.deliverytracker.dto.LoginRequest;
+import com.deliverytracker.dto.LoginResponse;
+import com.deliverytracker.security.JwtTokenProvider;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/v1/auth")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@Tag(name = "Authentication", description = "Authentication management API")
+public class ReactiveAuthController {
+    
+    private final ReactiveAuthenticationManager authenticationManager;
+    private final JwtTokenProvider jwtTokenProvider;
+    
+    @Autowired
+    public ReactiveAuthController(ReactiveAuthenticationManager authenticationManager,
+                                  JwtTokenProvider jwtTokenProvider) {
+        this.authenticationManager = authenticationManager;
+        this.jwtTokenProvider = jwtTokenProvider;
+    }
+    
+    @PostMapping("/login")
+    @Operation(summary = "Authenticate user and get JWT token")
+    public Mono<ResponseEntity<LoginResponse>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+        UsernamePasswordAuthenticationToken credentials = new UsernamePasswordAuthenticationToken(
+            loginRequest.getUsername(),
+            loginRequest.getPassword()
+        );
+        
+        return authenticationManager.authenticate(credentials)
+            .map(authentication -> {
+                String jwt = jwtTokenProvider.generateToken(loginRequest.getUsername());
+                return ResponseEntity.ok(new LoginResponse(jwt, "Bearer", loginRequest.getUsername()));
+            })
+            .onErrorResume(AuthenticationException.class, e -> Mono.just(ResponseEntity.badRequest()
+                .body(new LoginResponse(null, null, null, "Invalid credentials"))));
+    }
+    
+    @GetMapping("/validate")
+    @Operation(summary = "Validate JWT token")
+    public ResponseEntity<?> validateToken(@RequestHeader("Authorization") String token) {
+        try {
+            String jwt = token.substring(7); // Remove "Bearer " prefix
+            if (jwtTokenProvider.validateToken(jwt)) {
+                String username = jwtTokenProvider.getUsernameFromToken(jwt);
+                return ResponseEntity.ok().body("{\"valid\": true, \"username\": \"" + username + "\"}");
+            } else {
+                return ResponseEntity.badRequest().body("{\"valid\": false}");
+            }
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("{\"valid\": false}");
+        }
+    }
+}
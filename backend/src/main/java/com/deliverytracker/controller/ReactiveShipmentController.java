@@ -0,0 +1,158 @@
+package com.deliverytracker.controller;
+
+import com.deliverytracker.dto.ShipmentCreateRequest;
+import com.deliverytracker.dto.ShipmentStatsResponse;
+import com.deliverytracker.dto.ShipmentTimeline;
+import com.deliverytracker.dto.ShipmentUpdateRequest;
+import com.deliverytracker.model.Shipment;
+import com.deliverytracker.model.ShipmentStatus;
+import com.deliverytracker.service.ReactiveShipmentService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Same /api/v1/shipments contract as ShipmentController for the reactive profile. List endpoints return a
+// Flux, written as a streamed JSON array, or one document per line for Accept: application/x-ndjson.
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/v1/shipments")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@Tag(name = "Shipments", description = "Shipment management API")
+public class ReactiveShipmentController {
+    
+    private static final int MAX_PAGE_SIZE = 2000;
+    
+    private final ReactiveShipmentService shipmentService;
+    
+    @Autowired
+    public ReactiveShipmentController(ReactiveShipmentService shipmentService) {
+        this.shipmentService = shipmentService;
+    }
+    
+    @PostMapping
+    @Operation(summary = "Create a new shipment")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Shipment created successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid request data"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public Mono<ResponseEntity<Shipment>> createShipment(@Valid @RequestBody ShipmentCreateRequest request) {
+        return shipmentService.createShipment(request)
+            .map(shipment -> new ResponseEntity<>(shipment, HttpStatus.CREATED));
+    }
+    
+    @GetMapping
+    @Operation(summary = "Get all shipments with pagination")
+    @ApiResponse(responseCode = "200", description = "Shipments retrieved successfully")
+    public Mono<ResponseEntity<Page<Shipment>>> getAllShipments(
+            @Parameter(description = "Page number") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        PageRequest pageable = PageRequest.of(Math.max(0, page), Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+        return shipmentService.getAllShipments(pageable).map(ResponseEntity::ok);
+    }
+    
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all shipments newest first, one JSON document per line")
+    @ApiResponse(responseCode = "200", description = "Shipments streamed")
+    public Flux<Shipment> streamAllShipments() {
+        return shipmentService.streamAllShipments();
+    }
+    
+    @GetMapping("/{id}")
+    @Operation(summary = "Get shipment by ID")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Shipment found"),
+        @ApiResponse(responseCode = "404", description = "Shipment not found")
+    })
+    public Mono<ResponseEntity<Shipment>> getShipmentById(
+            @Parameter(description = "Shipment ID") @PathVariable String id) {
+        return shipmentService.getShipmentById(id)
+            .map(ResponseEntity::ok)
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/track/{trackingNumber}")
+    @Operation(summary = "Track shipment by tracking number")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Shipment found"),
+        @ApiResponse(responseCode = "404", description = "Tracking number not found")
+    })
+    public Mono<ResponseEntity<Shipment>> trackShipment(
+            @Parameter(description = "Tracking number") @PathVariable String trackingNumber) {
+        return shipmentService.getShipmentByTrackingNumber(trackingNumber)
+            .map(ResponseEntity::ok)
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/track/{trackingNumber}/timeline")
+    @Operation(summary = "Track shipment with its most recent status changes")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Shipment found"),
+        @ApiResponse(responseCode = "404", description = "Tracking number not found")
+    })
+    public Mono<ResponseEntity<ShipmentTimeline>> getTimeline(
+            @Parameter(description = "Tracking number") @PathVariable String trackingNumber) {
+        return shipmentService.getTimeline(trackingNumber)
+            .map(ResponseEntity::ok)
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+    
+    @PutMapping("/{id}/status")
+    @Operation(summary = "Update shipment status")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Status updated successfully"),
+        @ApiResponse(responseCode = "400", description = "Shipment not found"),
+        @ApiResponse(responseCode = "409", description = "Current status does not allow this transition")
+    })
+    public Mono<ResponseEntity<Shipment>> updateShipmentStatus(
+            @Parameter(description = "Shipment ID") @PathVariable String id,
+            @Valid @RequestBody ShipmentUpdateRequest request) {
+        return shipmentService.updateShipmentStatus(id, request).map(ResponseEntity::ok);
+    }
+    
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Delete a shipment")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Shipment deleted successfully"),
+        @ApiResponse(responseCode = "404", description = "Shipment not found")
+    })
+    public Mono<ResponseEntity<Void>> deleteShipment(
+            @Parameter(description = "Shipment ID") @PathVariable String id) {
+        return shipmentService.deleteShipment(id).then(Mono.just(ResponseEntity.noContent().build()));
+    }
+    
+    @GetMapping(value = "/status/{status}", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    @Operation(summary = "Get shipments by status")
+    @ApiResponse(responseCode = "200", description = "Shipments retrieved successfully")
+    public Flux<Shipment> getShipmentsByStatus(
+            @Parameter(description = "Shipment status") @PathVariable ShipmentStatus status) {
+        return shipmentService.getShipmentsByStatus(status);
+    }
+    
+    @GetMapping(value = "/overdue", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    @Operation(summary = "Get overdue shipments")
+    @ApiResponse(responseCode = "200", description = "Overdue shipments retrieved successfully")
+    public Flux<Shipment> getOverdueShipments() {
+        return shipmentService.getOverdueShipments();
+    }
+    
+    @GetMapping("/stats")
+    @Operation(summary = "Get aggregated shipment statistics")
+    @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
+    public Mono<ResponseEntity<ShipmentStatsResponse>> getShipmentStats() {
+        return shipmentService.getShipmentStats().map(ResponseEntity::ok);
+    }
+}
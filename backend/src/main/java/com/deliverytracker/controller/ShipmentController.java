@@ -1,9 +1,18 @@
 package com.deliverytracker.controller;
 
+import com.deliverytracker.dto.BatchResponse;
+import com.deliverytracker.dto.CursorPage;
+import com.deliverytracker.dto.ExportFormat;
+import com.deliverytracker.dto.ShipmentBatchCreateRequest;
 import com.deliverytracker.dto.ShipmentCreateRequest;
+import com.deliverytracker.dto.ShipmentStatsResponse;
+import com.deliverytracker.dto.ShipmentStatusBatchUpdateRequest;
+import com.deliverytracker.dto.ShipmentTimeline;
 import com.deliverytracker.dto.ShipmentUpdateRequest;
 import com.deliverytracker.model.Shipment;
 import com.deliverytracker.model.ShipmentStatus;
+import com.deliverytracker.model.ShipmentStatusHistory;
+import com.deliverytracker.service.ShipmentExportService;
 import com.deliverytracker.service.ShipmentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,25 +21,37 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/v1/shipments")
 @CrossOrigin(origins = "*", maxAge = 3600)
 @Tag(name = "Shipments", description = "Shipment management API")
 public class ShipmentController {
     
+    private static final int MAX_CURSOR_PAGE_SIZE = 200;
+    
     private final ShipmentService shipmentService;
+    private final ShipmentExportService exportService;
     
     @Autowired
-    public ShipmentController(ShipmentService shipmentService) {
+    public ShipmentController(ShipmentService shipmentService, ShipmentExportService exportService) {
         this.shipmentService = shipmentService;
+        this.exportService = exportService;
     }
     
     @PostMapping
@@ -45,6 +66,18 @@ public class ShipmentController {
         return new ResponseEntity<>(shipment, HttpStatus.CREATED);
     }
     
+    @PostMapping("/batch")
+    @Operation(summary = "Create shipments in bulk")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch processed, see per-item results"),
+        @ApiResponse(responseCode = "400", description = "Invalid request data"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<BatchResponse> createShipments(@Valid @RequestBody ShipmentBatchCreateRequest request) {
+        BatchResponse response = shipmentService.createShipments(request.getShipments());
+        return ResponseEntity.ok(response);
+    }
+    
     @GetMapping
     @Operation(summary = "Get all shipments with pagination")
     @ApiResponse(responseCode = "200", description = "Shipments retrieved successfully")
@@ -53,6 +86,18 @@ public class ShipmentController {
         return ResponseEntity.ok(shipments);
     }
     
+    @GetMapping("/cursor")
+    @Operation(summary = "Get shipments newest first with keyset pagination")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Shipments retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    public ResponseEntity<CursorPage<Shipment>> getShipmentsByCursor(
+            @Parameter(description = "nextCursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(shipmentService.getShipments(cursor, pageSize(size)));
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Get shipment by ID")
     @ApiResponses(value = {
@@ -79,12 +124,35 @@ public class ShipmentController {
             .orElse(ResponseEntity.notFound().build());
     }
     
+    @GetMapping("/track/{trackingNumber}/timeline")
+    @Operation(summary = "Track shipment with its most recent status changes")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Shipment found"),
+        @ApiResponse(responseCode = "404", description = "Tracking number not found")
+    })
+    public ResponseEntity<ShipmentTimeline> getTimeline(
+            @Parameter(description = "Tracking number") @PathVariable String trackingNumber) {
+        return shipmentService.getTimeline(trackingNumber)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/{id}/history")
+    @Operation(summary = "Get the complete status history of a shipment, newest first")
+    @ApiResponse(responseCode = "200", description = "History retrieved successfully")
+    public ResponseEntity<Slice<ShipmentStatusHistory>> getStatusHistory(
+            @Parameter(description = "Shipment ID") @PathVariable String id,
+            @Parameter(description = "Page number") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(shipmentService.getStatusHistory(id, Math.max(0, page), pageSize(size)));
+    }
+    
     @PutMapping("/{id}/status")
     @Operation(summary = "Update shipment status")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Status updated successfully"),
-        @ApiResponse(responseCode = "400", description = "Invalid status transition"),
-        @ApiResponse(responseCode = "404", description = "Shipment not found")
+        @ApiResponse(responseCode = "400", description = "Shipment not found"),
+        @ApiResponse(responseCode = "409", description = "Current status does not allow this transition")
     })
     public ResponseEntity<Shipment> updateShipmentStatus(
             @Parameter(description = "Shipment ID") @PathVariable String id,
@@ -93,6 +161,19 @@ public class ShipmentController {
         return ResponseEntity.ok(updatedShipment);
     }
     
+    @PutMapping("/status/batch")
+    @Operation(summary = "Update shipment statuses in bulk")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch processed, see per-item results"),
+        @ApiResponse(responseCode = "400", description = "Invalid request data"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<BatchResponse> updateShipmentStatuses(
+            @Valid @RequestBody ShipmentStatusBatchUpdateRequest request) {
+        BatchResponse response = shipmentService.updateShipmentStatuses(request.getUpdates());
+        return ResponseEntity.ok(response);
+    }
+    
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a shipment")
     @ApiResponses(value = {
@@ -114,6 +195,19 @@ public class ShipmentController {
         return ResponseEntity.ok(shipments);
     }
     
+    @GetMapping("/status/{status}/cursor")
+    @Operation(summary = "Get shipments by status with keyset pagination")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Shipments retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    public ResponseEntity<CursorPage<Shipment>> getShipmentsByStatusCursor(
+            @Parameter(description = "Shipment status") @PathVariable ShipmentStatus status,
+            @Parameter(description = "nextCursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(shipmentService.getShipmentsByStatus(status, cursor, pageSize(size)));
+    }
+    
     @GetMapping("/overdue")
     @Operation(summary = "Get overdue shipments")
     @ApiResponse(responseCode = "200", description = "Overdue shipments retrieved successfully")
@@ -121,4 +215,63 @@ public class ShipmentController {
         List<Shipment> overdueShipments = shipmentService.getOverdueShipments();
         return ResponseEntity.ok(overdueShipments);
     }
+    
+    @GetMapping("/overdue/cursor")
+    @Operation(summary = "Get overdue shipments with keyset pagination")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Overdue shipments retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    public ResponseEntity<CursorPage<Shipment>> getOverdueShipmentsCursor(
+            @Parameter(description = "nextCursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(shipmentService.getOverdueShipments(cursor, pageSize(size)));
+    }
+    
+    @GetMapping("/search")
+    @Operation(summary = "Search shipments by origin or destination prefix")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Matching shipments, best matches first"),
+        @ApiResponse(responseCode = "400", description = "Empty search query")
+    })
+    public ResponseEntity<Slice<Shipment>> searchByLocation(
+            @Parameter(description = "Location words or word prefixes, e.g. \"new yo\"") @RequestParam String q,
+            @Parameter(description = "Page number") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(shipmentService.searchByLocation(q, Math.max(0, page), pageSize(size)));
+    }
+    
+    @GetMapping("/export")
+    @Operation(summary = "Stream shipments as NDJSON or CSV")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export streamed"),
+        @ApiResponse(responseCode = "400", description = "Unsupported export format")
+    })
+    public ResponseEntity<StreamingResponseBody> exportShipments(
+            @Parameter(description = "ndjson or csv") @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(description = "Shipment status") @RequestParam(required = false) ShipmentStatus status,
+            @Parameter(description = "Created at or after (ISO date-time)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Created before (ISO date-time)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = out -> exportService.export(exportFormat, status, from, to, out);
+        
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"shipments." + exportFormat.getExtension() + "\"")
+            .body(body);
+    }
+    
+    @GetMapping("/stats")
+    @Operation(summary = "Get aggregated shipment statistics")
+    @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
+    public ResponseEntity<ShipmentStatsResponse> getShipmentStats() {
+        return ResponseEntity.ok(shipmentService.getShipmentStats());
+    }
+    
+    private static int pageSize(int requested) {
+        return Math.max(1, Math.min(requested, MAX_CURSOR_PAGE_SIZE));
+    }
 }
@@ -0,0 +1,62 @@
+package com.deliverytracker.controller;
+
+import com.deliverytracker.dto.StatusCount;
+import com.deliverytracker.model.RouteStats;
+import com.deliverytracker.model.ShipmentView;
+import com.deliverytracker.service.ShipmentReadModelService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/v1/shipments/views")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@Tag(name = "Shipment views", description = "Read model projected from shipment events")
+public class ShipmentViewController {
+    
+    private static final int MAX_ROUTES = 500;
+    
+    private final ShipmentReadModelService readModelService;
+    
+    @Autowired
+    public ShipmentViewController(ShipmentReadModelService readModelService) {
+        this.readModelService = readModelService;
+    }
+    
+    @GetMapping("/status-counts")
+    @Operation(summary = "Get shipment counts per status from the read model")
+    @ApiResponse(responseCode = "200", description = "Counts retrieved successfully")
+    public ResponseEntity<List<StatusCount>> getStatusCounts() {
+        return ResponseEntity.ok(readModelService.getStatusCounts());
+    }
+    
+    @GetMapping("/routes")
+    @Operation(summary = "Get the busiest routes from the read model")
+    @ApiResponse(responseCode = "200", description = "Routes retrieved successfully")
+    public ResponseEntity<List<RouteStats>> getTopRoutes(
+            @Parameter(description = "Maximum number of routes") @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(readModelService.getTopRoutes(Math.max(1, Math.min(limit, MAX_ROUTES))));
+    }
+    
+    @GetMapping("/{trackingNumber}")
+    @Operation(summary = "Get the latest projected state of a shipment")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Shipment view found"),
+        @ApiResponse(responseCode = "404", description = "Tracking number not found")
+    })
+    public ResponseEntity<ShipmentView> getView(
+            @Parameter(description = "Tracking number") @PathVariable String trackingNumber) {
+        return readModelService.getView(trackingNumber)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,82 @@
+package com.deliverytracker.dto;
+
+import com.deliverytracker.model.ShipmentStatus;
+
+public class BatchItemResult {
+    
+    private int index;
+    private boolean success;
+    private String id;
+    private String trackingNumber;
+    private ShipmentStatus status;
+    private String error;
+    
+    public BatchItemResult() {}
+    
+    public static BatchItemResult success(int index, String id, String trackingNumber, ShipmentStatus status) {
+        BatchItemResult result = new BatchItemResult();
+        result.index = index;
+        result.success = true;
+        result.id = id;
+        result.trackingNumber = trackingNumber;
+        result.status = status;
+        return result;
+    }
+    
+    public static BatchItemResult failure(int index, String id, String error) {
+        BatchItemResult result = new BatchItemResult();
+        result.index = index;
+        result.success = false;
+        result.id = id;
+        result.error = error;
+        return result;
+    }
+    
+    public int getIndex() {
+        return index;
+    }
+    
+    public void setIndex(int index) {
+        this.index = index;
+    }
+    
+    public boolean isSuccess() {
+        return success;
+    }
+    
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public String getTrackingNumber() {
+        return trackingNumber;
+    }
+    
+    public void setTrackingNumber(String trackingNumber) {
+        this.trackingNumber = trackingNumber;
+    }
+    
+    public ShipmentStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(ShipmentStatus status) {
+        this.status = status;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,35 @@
+package com.deliverytracker.dto;
+
+import org.springframework.data.annotation.Id;
+
+public class DailyCount {
+    
+    // ISO date (yyyy-MM-dd) as produced by $dateToString
+    @Id
+    private String day;
+    
+    private long count;
+    
+    public DailyCount() {}
+    
+    public DailyCount(String day, long count) {
+        this.day = day;
+        this.count = count;
+    }
+    
+    public String getDay() {
+        return day;
+    }
+    
+    public void setDay(String day) {
+        this.day = day;
+    }
+    
+    public long getCount() {
+        return count;
+    }
+    
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
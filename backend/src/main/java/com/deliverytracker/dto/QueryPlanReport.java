@@ -0,0 +1,90 @@
+package com.deliverytracker.dto;
+
+import java.util.List;
+
+public class QueryPlanReport {
+    
+    private String query;
+    private List<String> stages;
+    private List<String> indexes;
+    private boolean collectionScan;
+    private boolean covered;
+    private long returned;
+    private long keysExamined;
+    private long docsExamined;
+    private long executionTimeMillis;
+    
+    public QueryPlanReport() {}
+    
+    public String getQuery() {
+        return query;
+    }
+    
+    public void setQuery(String query) {
+        this.query = query;
+    }
+    
+    public List<String> getStages() {
+        return stages;
+    }
+    
+    public void setStages(List<String> stages) {
+        this.stages = stages;
+    }
+    
+    public List<String> getIndexes() {
+        return indexes;
+    }
+    
+    public void setIndexes(List<String> indexes) {
+        this.indexes = indexes;
+    }
+    
+    public boolean isCollectionScan() {
+        return collectionScan;
+    }
+    
+    public void setCollectionScan(boolean collectionScan) {
+        this.collectionScan = collectionScan;
+    }
+    
+    public boolean isCovered() {
+        return covered;
+    }
+    
+    public void setCovered(boolean covered) {
+        this.covered = covered;
+    }
+    
+    public long getReturned() {
+        return returned;
+    }
+    
+    public void setReturned(long returned) {
+        this.returned = returned;
+    }
+    
+    public long getKeysExamined() {
+        return keysExamined;
+    }
+    
+    public void setKeysExamined(long keysExamined) {
+        this.keysExamined = keysExamined;
+    }
+    
+    public long getDocsExamined() {
+        return docsExamined;
+    }
+    
+    public void setDocsExamined(long docsExamined) {
+        this.docsExamined = docsExamined;
+    }
+    
+    public long getExecutionTimeMillis() {
+        return executionTimeMillis;
+    }
+    
+    public void setExecutionTimeMillis(long executionTimeMillis) {
+        this.executionTimeMillis = executionTimeMillis;
+    }
+}
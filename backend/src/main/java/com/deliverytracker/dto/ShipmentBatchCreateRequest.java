@@ -0,0 +1,28 @@
+package com.deliverytracker.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class ShipmentBatchCreateRequest {
+    
+    @NotEmpty(message = "At least one shipment is required")
+    @Size(max = 1000, message = "A batch must not exceed 1000 shipments")
+    private List<@Valid ShipmentCreateRequest> shipments;
+    
+    public ShipmentBatchCreateRequest() {}
+    
+    public ShipmentBatchCreateRequest(List<ShipmentCreateRequest> shipments) {
+        this.shipments = shipments;
+    }
+    
+    public List<ShipmentCreateRequest> getShipments() {
+        return shipments;
+    }
+    
+    public void setShipments(List<ShipmentCreateRequest> shipments) {
+        this.shipments = shipments;
+    }
+}
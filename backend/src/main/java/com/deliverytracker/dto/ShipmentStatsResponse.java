@@ -0,0 +1,67 @@
+package com.deliverytracker.dto;
+
+import com.deliverytracker.model.ShipmentStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public class ShipmentStatsResponse {
+    
+    private long total;
+    private Map<ShipmentStatus, Long> byStatus;
+    private long overdue;
+    private Map<LocalDate, Long> createdPerDay;
+    private LocalDateTime lastReconciledAt;
+    
+    public ShipmentStatsResponse() {}
+    
+    public ShipmentStatsResponse(long total, Map<ShipmentStatus, Long> byStatus, long overdue,
+                                 Map<LocalDate, Long> createdPerDay, LocalDateTime lastReconciledAt) {
+        this.total = total;
+        this.byStatus = byStatus;
+        this.overdue = overdue;
+        this.createdPerDay = createdPerDay;
+        this.lastReconciledAt = lastReconciledAt;
+    }
+    
+    public long getTotal() {
+        return total;
+    }
+    
+    public void setTotal(long total) {
+        this.total = total;
+    }
+    
+    public Map<ShipmentStatus, Long> getByStatus() {
+        return byStatus;
+    }
+    
+    public void setByStatus(Map<ShipmentStatus, Long> byStatus) {
+        this.byStatus = byStatus;
+    }
+    
+    public long getOverdue() {
+        return overdue;
+    }
+    
+    public void setOverdue(long overdue) {
+        this.overdue = overdue;
+    }
+    
+    public Map<LocalDate, Long> getCreatedPerDay() {
+        return createdPerDay;
+    }
+    
+    public void setCreatedPerDay(Map<LocalDate, Long> createdPerDay) {
+        this.createdPerDay = createdPerDay;
+    }
+    
+    public LocalDateTime getLastReconciledAt() {
+        return lastReconciledAt;
+    }
+    
+    public void setLastReconciledAt(LocalDateTime lastReconciledAt) {
+        this.lastReconciledAt = lastReconciledAt;
+    }
+}
@@ -0,0 +1,63 @@
+package com.deliverytracker.dto;
+
+import com.deliverytracker.model.ShipmentStatus;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class ShipmentStatusBatchUpdateRequest {
+    
+    @NotEmpty(message = "At least one update is required")
+    @Size(max = 1000, message = "A batch must not exceed 1000 updates")
+    private List<@Valid Item> updates;
+    
+    public ShipmentStatusBatchUpdateRequest() {}
+    
+    public ShipmentStatusBatchUpdateRequest(List<Item> updates) {
+        this.updates = updates;
+    }
+    
+    public List<Item> getUpdates() {
+        return updates;
+    }
+    
+    public void setUpdates(List<Item> updates) {
+        this.updates = updates;
+    }
+    
+    public static class Item {
+        
+        @NotBlank(message = "Shipment ID is required")
+        private String id;
+        
+        @NotNull(message = "Status is required")
+        private ShipmentStatus status;
+        
+        public Item() {}
+        
+        public Item(String id, ShipmentStatus status) {
+            this.id = id;
+            this.status = status;
+        }
+        
+        public String getId() {
+            return id;
+        }
+        
+        public void setId(String id) {
+            this.id = id;
+        }
+        
+        public ShipmentStatus getStatus() {
+            return status;
+        }
+        
+        public void setStatus(ShipmentStatus status) {
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.deliverytracker.dto;
+
+import com.deliverytracker.model.Shipment;
+import com.deliverytracker.model.ShipmentStatus;
+import com.deliverytracker.model.StatusHistoryEntry;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Tracking view with the embedded status history; when complete is false the older entries are available from
+// GET /api/v1/shipments/{id}/history
+public class ShipmentTimeline {
+    
+    private String id;
+    private String trackingNumber;
+    private String origin;
+    private String destination;
+    private String description;
+    private ShipmentStatus status;
+    private LocalDateTime estimatedDelivery;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private List<StatusHistoryEntry> history;
+    private int totalEntries;
+    private boolean complete;
+    
+    public ShipmentTimeline() {}
+    
+    public static ShipmentTimeline of(Shipment shipment) {
+        ShipmentTimeline timeline = new ShipmentTimeline();
+        timeline.id = shipment.getId();
+        timeline.trackingNumber = shipment.getTrackingNumber();
+        timeline.origin = shipment.getOrigin();
+        timeline.destination = shipment.getDestination();
+        timeline.description = shipment.getDescription();
+        timeline.status = shipment.getStatus();
+        timeline.estimatedDelivery = shipment.getEstimatedDelivery();
+        timeline.createdAt = shipment.getCreatedAt();
+        timeline.updatedAt = shipment.getUpdatedAt();
+        timeline.history = shipment.getRecentHistory() != null ? shipment.getRecentHistory() : List.of();
+        // Shipments created before the history existed have neither entries nor a count
+        timeline.totalEntries = Math.max(shipment.getHistoryCount(), timeline.history.size());
+        timeline.complete = timeline.history.size() == timeline.totalEntries;
+        return timeline;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public String getTrackingNumber() {
+        return trackingNumber;
+    }
+    
+    public void setTrackingNumber(String trackingNumber) {
+        this.trackingNumber = trackingNumber;
+    }
+    
+    public String getOrigin() {
+        return origin;
+    }
+    
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+    
+    public String getDestination() {
+        return destination;
+    }
+    
+    public void setDestination(String destination) {
+        this.destination = destination;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public ShipmentStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(ShipmentStatus status) {
+        this.status = status;
+    }
+    
+    public LocalDateTime getEstimatedDelivery() {
+        return estimatedDelivery;
+    }
+    
+    public void setEstimatedDelivery(LocalDateTime estimatedDelivery) {
+        this.estimatedDelivery = estimatedDelivery;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    public List<StatusHistoryEntry> getHistory() {
+        return history;
+    }
+    
+    public void setHistory(List<StatusHistoryEntry> history) {
+        this.history = history;
+    }
+    
+    public int getTotalEntries() {
+        return totalEntries;
+    }
+    
+    public void setTotalEntries(int totalEntries) {
+        this.totalEntries = totalEntries;
+    }
+    
+    public boolean isComplete() {
+        return complete;
+    }
+    
+    public void setComplete(boolean complete) {
+        this.complete = complete;
+    }
+}
@@ -0,0 +1,35 @@
+package com.deliverytracker.dto;
+
+import com.deliverytracker.model.ShipmentStatus;
+import org.springframework.data.annotation.Id;
+
+public class StatusCount {
+    
+    @Id
+    private ShipmentStatus status;
+    
+    private long count;
+    
+    public StatusCount() {}
+    
+    public StatusCount(ShipmentStatus status, long count) {
+        this.status = status;
+        this.count = count;
+    }
+    
+    public ShipmentStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(ShipmentStatus status) {
+        this.status = status;
+    }
+    
+    public long getCount() {
+        return count;
+    }
+    
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
@@ -0,0 +1,258 @@
+package com.deliverytracker.event;
+
+import com.deliverytracker.model.ShipmentStatus;
+import org.bson.types.ObjectId;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+// Length-prefixed binary layout, version 1:
+//   version:u8 type:u8 eventId:id shipmentId:id trackingNumber:str origin:str destination:str
+//   oldStatus:u8 newStatus:u8 timestamp:time estimatedDelivery:time
+// id   = tag:u8 (0 null, 1 ObjectId, 2 string) followed by 12 raw bytes or a str
+// str  = varint(byteLength + 1) UTF-8 bytes, 0 meaning null
+// time = varint(zigzag(epochMillis) + 1), 0 meaning null; local date-times are read and written as UTC
+// New fields may only be appended; decoders ignore trailing bytes they do not know.
+@Component
+public class BinaryShipmentEventCodec implements ShipmentEventCodec {
+    
+    public static final String NAME = "binary-v1";
+    
+    private static final byte VERSION = 1;
+    
+    // Wire codes are positions in these arrays (statuses are offset by one, 0 meaning none).
+    // Append only: reordering or removing entries breaks every stored and in-flight event.
+    private static final ShipmentEventType[] TYPES = {
+        ShipmentEventType.SHIPMENT_CREATED,
+        ShipmentEventType.SHIPMENT_STATUS_UPDATED,
+        ShipmentEventType.SHIPMENT_DELETED,
+        ShipmentEventType.SHIPMENT_OVERDUE
+    };
+    
+    private static final ShipmentStatus[] STATUSES = {
+        ShipmentStatus.CREATED,
+        ShipmentStatus.PICKED_UP,
+        ShipmentStatus.IN_TRANSIT,
+        ShipmentStatus.OUT_FOR_DELIVERY,
+        ShipmentStatus.DELIVERED,
+        ShipmentStatus.DELAYED,
+        ShipmentStatus.RETURNED,
+        ShipmentStatus.CANCELLED
+    };
+    
+    private static final ZoneOffset ZONE = ZoneOffset.UTC;
+    
+    @Override
+    public String name() {
+        return NAME;
+    }
+    
+    @Override
+    public byte[] encode(ShipmentEvent event) {
+        Writer writer = new Writer(128);
+        writer.writeByte(VERSION);
+        writer.writeByte(indexOf(TYPES, event.getType()));
+        writer.writeId(event.getEventId());
+        writer.writeId(event.getShipmentId());
+        writer.writeString(event.getTrackingNumber());
+        writer.writeString(event.getOrigin());
+        writer.writeString(event.getDestination());
+        writer.writeByte(event.getOldStatus() == null ? 0 : indexOf(STATUSES, event.getOldStatus()) + 1);
+        writer.writeByte(event.getNewStatus() == null ? 0 : indexOf(STATUSES, event.getNewStatus()) + 1);
+        writer.writeTime(event.getTimestamp());
+        writer.writeTime(event.getEstimatedDelivery());
+        return writer.toByteArray();
+    }
+    
+    @Override
+    public ShipmentEvent decode(byte[] payload) {
+        Reader reader = new Reader(payload);
+        int version = reader.readByte();
+        if (version < 1) {
+            throw new IllegalArgumentException("Unsupported shipment event version: " + version);
+        }
+        
+        ShipmentEvent event = new ShipmentEvent();
+        int type = reader.readByte();
+        if (type >= TYPES.length) {
+            throw new IllegalArgumentException("Unknown shipment event type code: " + type);
+        }
+        event.setType(TYPES[type]);
+        event.setEventId(reader.readId());
+        event.setShipmentId(reader.readId());
+        event.setTrackingNumber(reader.readString());
+        event.setOrigin(reader.readString());
+        event.setDestination(reader.readString());
+        event.setOldStatus(readStatus(reader));
+        event.setNewStatus(readStatus(reader));
+        event.setTimestamp(reader.readTime());
+        event.setEstimatedDelivery(reader.readTime());
+        return event;
+    }
+    
+    private static ShipmentStatus readStatus(Reader reader) {
+        int code = reader.readByte();
+        if (code == 0) {
+            return null;
+        }
+        if (code > STATUSES.length) {
+            throw new IllegalArgumentException("Unknown shipment status code: " + code);
+        }
+        return STATUSES[code - 1];
+    }
+    
+    private static <T> int indexOf(T[] values, T value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("No wire code for " + value);
+    }
+    
+    private static final class Writer {
+        
+        private byte[] buffer;
+        private int position;
+        
+        Writer(int initialCapacity) {
+            this.buffer = new byte[initialCapacity];
+        }
+        
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[position++] = (byte) value;
+        }
+        
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+        
+        void writeBytes(byte[] bytes) {
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+        
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length + 1L);
+            writeBytes(bytes);
+        }
+        
+        void writeId(String value) {
+            if (value == null) {
+                writeByte(0);
+            } else if (ObjectId.isValid(value)) {
+                writeByte(1);
+                writeBytes(new ObjectId(value).toByteArray());
+            } else {
+                writeByte(2);
+                writeString(value);
+            }
+        }
+        
+        void writeTime(LocalDateTime value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            long millis = value.atZone(ZONE).toInstant().toEpochMilli();
+            writeVarLong(((millis << 1) ^ (millis >> 63)) + 1);
+        }
+        
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+        
+        private void ensureCapacity(int extra) {
+            if (position + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+            }
+        }
+    }
+    
+    private static final class Reader {
+        
+        private final byte[] buffer;
+        private int position;
+        
+        Reader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+        
+        int readByte() {
+            if (position >= buffer.length) {
+                throw new IllegalArgumentException("Truncated shipment event payload");
+            }
+            return buffer[position++] & 0xFF;
+        }
+        
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in shipment event payload");
+        }
+        
+        byte[] readBytes(int length) {
+            if (length < 0 || position + length > buffer.length) {
+                throw new IllegalArgumentException("Truncated shipment event payload");
+            }
+            byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+            return bytes;
+        }
+        
+        String readString() {
+            long length = readVarLong();
+            if (length == 0) {
+                return null;
+            }
+            int size = Math.toIntExact(length - 1);
+            if (size < 0 || position + size > buffer.length) {
+                throw new IllegalArgumentException("Truncated shipment event payload");
+            }
+            String value = new String(buffer, position, size, StandardCharsets.UTF_8);
+            position += size;
+            return value;
+        }
+        
+        String readId() {
+            return switch (readByte()) {
+                case 0 -> null;
+                case 1 -> new ObjectId(readBytes(12)).toHexString();
+                case 2 -> readString();
+                default -> throw new IllegalArgumentException("Unknown id tag in shipment event payload");
+            };
+        }
+        
+        LocalDateTime readTime() {
+            long encoded = readVarLong();
+            if (encoded == 0) {
+                return null;
+            }
+            long zigzag = encoded - 1;
+            long millis = (zigzag >>> 1) ^ -(zigzag & 1);
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZONE);
+        }
+    }
+}
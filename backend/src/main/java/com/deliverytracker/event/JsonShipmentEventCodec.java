@@ -0,0 +1,44 @@
+package com.deliverytracker.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+// Human-readable alternative for debugging topics with console consumers
+@Component
+public class JsonShipmentEventCodec implements ShipmentEventCodec {
+    
+    public static final String NAME = "json-v1";
+    
+    private final ObjectMapper objectMapper;
+    
+    @Autowired
+    public JsonShipmentEventCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+    
+    @Override
+    public String name() {
+        return NAME;
+    }
+    
+    @Override
+    public byte[] encode(ShipmentEvent event) {
+        try {
+            return objectMapper.writeValueAsBytes(event);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Error serializing shipment event: " + e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public ShipmentEvent decode(byte[] payload) {
+        try {
+            return objectMapper.readValue(payload, ShipmentEvent.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Error deserializing shipment event: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.deliverytracker.event;
+
+import com.deliverytracker.model.Shipment;
+import com.deliverytracker.model.ShipmentStatus;
+import org.bson.types.ObjectId;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+public class ShipmentEvent {
+    
+    private String eventId;
+    private ShipmentEventType type;
+    private String shipmentId;
+    private String trackingNumber;
+    private String origin;
+    private String destination;
+    private ShipmentStatus oldStatus;
+    private ShipmentStatus newStatus;
+    private LocalDateTime estimatedDelivery;
+    private LocalDateTime timestamp;
+    
+    public ShipmentEvent() {}
+    
+    private ShipmentEvent(ShipmentEventType type, Shipment shipment, ShipmentStatus oldStatus,
+                          ShipmentStatus newStatus, LocalDateTime timestamp) {
+        this.eventId = new ObjectId().toHexString();
+        this.type = type;
+        this.shipmentId = shipment.getId();
+        this.trackingNumber = shipment.getTrackingNumber();
+        this.origin = shipment.getOrigin();
+        this.destination = shipment.getDestination();
+        this.oldStatus = oldStatus;
+        this.newStatus = newStatus;
+        this.estimatedDelivery = shipment.getEstimatedDelivery();
+        this.timestamp = timestamp;
+    }
+    
+    public static ShipmentEvent created(Shipment shipment) {
+        LocalDateTime timestamp = shipment.getCreatedAt() != null ? shipment.getCreatedAt() : LocalDateTime.now();
+        return new ShipmentEvent(ShipmentEventType.SHIPMENT_CREATED, shipment, null, shipment.getStatus(), timestamp);
+    }
+    
+    public static ShipmentEvent statusUpdated(Shipment shipment, ShipmentStatus oldStatus,
+                                              ShipmentStatus newStatus, LocalDateTime timestamp) {
+        return new ShipmentEvent(ShipmentEventType.SHIPMENT_STATUS_UPDATED, shipment, oldStatus, newStatus, timestamp);
+    }
+    
+    public static ShipmentEvent deleted(Shipment shipment) {
+        return new ShipmentEvent(ShipmentEventType.SHIPMENT_DELETED, shipment, shipment.getStatus(), null,
+            LocalDateTime.now());
+    }
+    
+    // Status is unchanged; both old and new carry the status the shipment had when its deadline passed
+    public static ShipmentEvent overdue(Shipment shipment, LocalDateTime timestamp) {
+        return new ShipmentEvent(ShipmentEventType.SHIPMENT_OVERDUE, shipment, shipment.getStatus(),
+            shipment.getStatus(), timestamp);
+    }
+    
+    public String getEventId() {
+        return eventId;
+    }
+    
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+    
+    public ShipmentEventType getType() {
+        return type;
+    }
+    
+    public void setType(ShipmentEventType type) {
+        this.type = type;
+    }
+    
+    public String getShipmentId() {
+        return shipmentId;
+    }
+    
+    public void setShipmentId(String shipmentId) {
+        this.shipmentId = shipmentId;
+    }
+    
+    public String getTrackingNumber() {
+        return trackingNumber;
+    }
+    
+    public void setTrackingNumber(String trackingNumber) {
+        this.trackingNumber = trackingNumber;
+    }
+    
+    public String getOrigin() {
+        return origin;
+    }
+    
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+    
+    public String getDestination() {
+        return destination;
+    }
+    
+    public void setDestination(String destination) {
+        this.destination = destination;
+    }
+    
+    public ShipmentStatus getOldStatus() {
+        return oldStatus;
+    }
+    
+    public void setOldStatus(ShipmentStatus oldStatus) {
+        this.oldStatus = oldStatus;
+    }
+    
+    public ShipmentStatus getNewStatus() {
+        return newStatus;
+    }
+    
+    public void setNewStatus(ShipmentStatus newStatus) {
+        this.newStatus = newStatus;
+    }
+    
+    public LocalDateTime getEstimatedDelivery() {
+        return estimatedDelivery;
+    }
+    
+    public void setEstimatedDelivery(LocalDateTime estimatedDelivery) {
+        this.estimatedDelivery = estimatedDelivery;
+    }
+    
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+    
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ShipmentEvent that = (ShipmentEvent) o;
+        return Objects.equals(eventId, that.eventId);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(eventId);
+    }
+    
+    @Override
+    public String toString() {
+        return "ShipmentEvent{" +
+                "eventId=" + eventId +
+                ", type=" + type +
+                ", shipmentId=" + shipmentId +
+                ", trackingNumber='" + trackingNumber + '\'' +
+                ", oldStatus=" + oldStatus +
+                ", newStatus=" + newStatus +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
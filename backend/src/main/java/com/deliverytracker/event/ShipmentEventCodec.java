@@ -0,0 +1,11 @@
+package com.deliverytracker.event;
+
+public interface ShipmentEventCodec {
+    
+    // Written to the record's codec header so consumers can pick the matching decoder
+    String name();
+    
+    byte[] encode(ShipmentEvent event);
+    
+    ShipmentEvent decode(byte[] payload);
+}
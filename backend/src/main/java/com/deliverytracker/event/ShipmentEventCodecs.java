@@ -0,0 +1,45 @@
+package com.deliverytracker.event;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Producers encode with the configured codec; consumers decode with whatever the record's header names,
+// so the codec can be switched without draining the topic first
+@Component
+public class ShipmentEventCodecs {
+    
+    private final Map<String, ShipmentEventCodec> codecsByName = new HashMap<>();
+    private final ShipmentEventCodec producerCodec;
+    
+    @Autowired
+    public ShipmentEventCodecs(List<ShipmentEventCodec> codecs,
+                               @Value("${app.events.codec:" + BinaryShipmentEventCodec.NAME + "}") String producerCodecName) {
+        for (ShipmentEventCodec codec : codecs) {
+            codecsByName.put(codec.name(), codec);
+        }
+        this.producerCodec = codecsByName.get(producerCodecName);
+        if (producerCodec == null) {
+            throw new IllegalStateException("Unknown shipment event codec: " + producerCodecName);
+        }
+    }
+    
+    public ShipmentEventCodec producerCodec() {
+        return producerCodec;
+    }
+    
+    // Records without a codec header predate the header and use the default binary layout
+    public ShipmentEvent decode(byte[] codecHeader, byte[] payload) {
+        String name = codecHeader != null ? new String(codecHeader, StandardCharsets.UTF_8) : BinaryShipmentEventCodec.NAME;
+        ShipmentEventCodec codec = codecsByName.get(name);
+        if (codec == null) {
+            throw new IllegalArgumentException("Unknown shipment event codec: " + name);
+        }
+        return codec.decode(payload);
+    }
+}
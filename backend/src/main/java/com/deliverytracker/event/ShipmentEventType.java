@@ -0,0 +1,8 @@
+package com.deliverytracker.event;
+
+public enum ShipmentEventType {
+    SHIPMENT_CREATED,
+    SHIPMENT_STATUS_UPDATED,
+    SHIPMENT_DELETED,
+    SHIPMENT_OVERDUE
+}
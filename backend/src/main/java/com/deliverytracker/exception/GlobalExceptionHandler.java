@@ -9,6 +9,7 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -19,6 +20,19 @@ public class GlobalExceptionHandler {
     
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
     
+    @ExceptionHandler(StatusConflictException.class)
+    public ResponseEntity<ErrorResponse> handleStatusConflictException(StatusConflictException ex) {
+        logger.warn("Status conflict: {}", ex.getMessage());
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            "STATUS_CONFLICT",
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+    
     @ExceptionHandler(BusinessException.class)
     public ResponseEntity<ErrorResponse> handleBusinessException(BusinessException ex) {
         logger.error("Business exception: {}", ex.getMessage(), ex);
@@ -35,8 +49,17 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationException(MethodArgumentNotValidException ex) {
         logger.error("Validation exception: {}", ex.getMessage(), ex);
-        
-        BindingResult result = ex.getBindingResult();
+        return validationFailed(ex.getBindingResult());
+    }
+    
+    // WebFlux reports @Valid failures with its own exception type
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleValidationException(WebExchangeBindException ex) {
+        logger.error("Validation exception: {}", ex.getMessage(), ex);
+        return validationFailed(ex.getBindingResult());
+    }
+    
+    private ResponseEntity<ErrorResponse> validationFailed(BindingResult result) {
         Map<String, String> fieldErrors = new HashMap<>();
         
         for (FieldError error : result.getFieldErrors()) {
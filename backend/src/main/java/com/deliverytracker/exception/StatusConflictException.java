@@ -0,0 +1,8 @@
+package com.deliverytracker.exception;
+
+public class StatusConflictException extends BusinessException {
+    
+    public StatusConflictException(String message) {
+        super(message);
+    }
+}
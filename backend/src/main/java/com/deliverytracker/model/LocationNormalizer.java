@@ -0,0 +1,38 @@
+package com.deliverytracker.model;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Folds locations to lower-case ASCII words so searches can use exact and anchored-prefix index lookups
+public final class LocationNormalizer {
+    
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+    
+    private LocationNormalizer() {}
+    
+    // "  São Paulo, BR " -> "sao paulo br"
+    public static String normalize(String location) {
+        if (location == null) {
+            return null;
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(location, Normalizer.Form.NFD)).replaceAll("");
+        return NON_ALPHANUMERIC.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+    
+    public static List<String> tokens(String... locations) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String location : locations) {
+            String normalized = normalize(location);
+            if (normalized != null && !normalized.isEmpty()) {
+                tokens.addAll(List.of(normalized.split(" ")));
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+}
@@ -0,0 +1,99 @@
+package com.deliverytracker.model;
+
+import com.deliverytracker.event.ShipmentEvent;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Document(collection = "shipment_outbox")
+public class OutboxEvent {
+    
+    public enum Status {
+        PENDING,
+        PUBLISHED
+    }
+    
+    // Same ObjectId as the event; its ordering is the relay and replay position
+    @Id
+    private String id;
+    
+    private ShipmentEvent event;
+    
+    // Instance that made the change; sent as a Kafka header so that instance can skip its own events
+    private String origin;
+    
+    private Status status;
+    
+    private int attempts;
+    
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime publishedAt;
+    
+    public OutboxEvent() {}
+    
+    public OutboxEvent(ShipmentEvent event, String origin) {
+        this.id = event.getEventId();
+        this.event = event;
+        this.origin = origin;
+        this.status = Status.PENDING;
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public ShipmentEvent getEvent() {
+        return event;
+    }
+    
+    public void setEvent(ShipmentEvent event) {
+        this.event = event;
+    }
+    
+    public String getOrigin() {
+        return origin;
+    }
+    
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+    
+    public int getAttempts() {
+        return attempts;
+    }
+    
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getPublishedAt() {
+        return publishedAt;
+    }
+    
+    public void setPublishedAt(LocalDateTime publishedAt) {
+        this.publishedAt = publishedAt;
+    }
+}
@@ -0,0 +1,76 @@
+package com.deliverytracker.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// Per origin/destination tallies maintained by the read-model consumer
+@Document(collection = "shipment_route_stats")
+public class RouteStats {
+    
+    @Id
+    private String id;
+    
+    private String origin;
+    
+    private String destination;
+    
+    private long total;
+    
+    private long active;
+    
+    private long delivered;
+    
+    public RouteStats() {}
+    
+    public static String key(String origin, String destination) {
+        return origin + "|" + destination;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public String getOrigin() {
+        return origin;
+    }
+    
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+    
+    public String getDestination() {
+        return destination;
+    }
+    
+    public void setDestination(String destination) {
+        this.destination = destination;
+    }
+    
+    public long getTotal() {
+        return total;
+    }
+    
+    public void setTotal(long total) {
+        this.total = total;
+    }
+    
+    public long getActive() {
+        return active;
+    }
+    
+    public void setActive(long active) {
+        this.active = active;
+    }
+    
+    public long getDelivered() {
+        return delivered;
+    }
+    
+    public void setDelivered(long delivered) {
+        this.delivered = delivered;
+    }
+}
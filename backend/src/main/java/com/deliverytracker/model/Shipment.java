@@ -1,5 +1,6 @@
 package com.deliverytracker.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
@@ -9,11 +10,15 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Objects;
 
 @Document(collection = "shipments")
 public class Shipment {
     
+    // Older entries are only kept in shipment_status_history
+    public static final int RECENT_HISTORY_LIMIT = 20;
+    
     @Id
     private String id;
     
@@ -39,12 +44,31 @@ public class Shipment {
     
     private String description;
     
+    // Search keys derived from origin/destination whenever either is set; see LocationNormalizer
+    @JsonIgnore
+    private String originKey;
+    
+    @JsonIgnore
+    private String destinationKey;
+    
+    @JsonIgnore
+    private List<String> locationTokens;
+    
+    // Newest last, capped at RECENT_HISTORY_LIMIT by $push/$slice in the same write that changes the status
+    @JsonIgnore
+    private List<StatusHistoryEntry> recentHistory;
+    
+    // Every entry ever pushed, so readers can tell whether recentHistory is complete
+    @JsonIgnore
+    private int historyCount;
+    
     public Shipment() {}
     
     public Shipment(String origin, String destination, ShipmentStatus status) {
         this.origin = origin;
         this.destination = destination;
         this.status = status;
+        updateLocationKeys();
     }
     
     // Getters and setters
@@ -62,6 +86,7 @@ public class Shipment {
     
     public void setOrigin(String origin) {
         this.origin = origin;
+        updateLocationKeys();
     }
     
     public String getDestination() {
@@ -70,6 +95,7 @@ public class Shipment {
     
     public void setDestination(String destination) {
         this.destination = destination;
+        updateLocationKeys();
     }
     
     public ShipmentStatus getStatus() {
@@ -120,6 +146,40 @@ public class Shipment {
         this.description = description;
     }
     
+    public String getOriginKey() {
+        return originKey;
+    }
+    
+    public String getDestinationKey() {
+        return destinationKey;
+    }
+    
+    public List<String> getLocationTokens() {
+        return locationTokens;
+    }
+    
+    public List<StatusHistoryEntry> getRecentHistory() {
+        return recentHistory;
+    }
+    
+    public void setRecentHistory(List<StatusHistoryEntry> recentHistory) {
+        this.recentHistory = recentHistory;
+    }
+    
+    public int getHistoryCount() {
+        return historyCount;
+    }
+    
+    public void setHistoryCount(int historyCount) {
+        this.historyCount = historyCount;
+    }
+    
+    private void updateLocationKeys() {
+        this.originKey = LocationNormalizer.normalize(origin);
+        this.destinationKey = LocationNormalizer.normalize(destination);
+        this.locationTokens = LocationNormalizer.tokens(origin, destination);
+    }
+    
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
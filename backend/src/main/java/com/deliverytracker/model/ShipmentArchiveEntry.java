@@ -0,0 +1,81 @@
+package com.deliverytracker.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// Where an archived shipment lives. Archived shipments are moved into one collection per month in which they
+// reached their terminal status; this index, keyed by tracking number, saves lookups from probing each month.
+@Document(collection = "shipment_archive_index")
+public class ShipmentArchiveEntry {
+    
+    public static final String COLLECTION_PREFIX = "shipments_archive_";
+    
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+    
+    @Id
+    private String trackingNumber;
+    
+    private String shipmentId;
+    private String collection;
+    private ShipmentStatus status;
+    private LocalDateTime archivedAt;
+    
+    public ShipmentArchiveEntry() {}
+    
+    public ShipmentArchiveEntry(String trackingNumber, String shipmentId, String collection, ShipmentStatus status,
+                                LocalDateTime archivedAt) {
+        this.trackingNumber = trackingNumber;
+        this.shipmentId = shipmentId;
+        this.collection = collection;
+        this.status = status;
+        this.archivedAt = archivedAt;
+    }
+    
+    // e.g. shipments_archive_202405
+    public static String collectionFor(LocalDateTime terminalAt) {
+        return COLLECTION_PREFIX + MONTH.format(terminalAt);
+    }
+    
+    public String getTrackingNumber() {
+        return trackingNumber;
+    }
+    
+    public void setTrackingNumber(String trackingNumber) {
+        this.trackingNumber = trackingNumber;
+    }
+    
+    public String getShipmentId() {
+        return shipmentId;
+    }
+    
+    public void setShipmentId(String shipmentId) {
+        this.shipmentId = shipmentId;
+    }
+    
+    public String getCollection() {
+        return collection;
+    }
+    
+    public void setCollection(String collection) {
+        this.collection = collection;
+    }
+    
+    public ShipmentStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(ShipmentStatus status) {
+        this.status = status;
+    }
+    
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+    
+    public void setArchivedAt(LocalDateTime archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+}
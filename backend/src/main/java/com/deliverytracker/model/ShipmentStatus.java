@@ -1,5 +1,13 @@
 package com.deliverytracker.model;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 public enum ShipmentStatus {
     CREATED("Order created"),
     PICKED_UP("Picked up from origin"),
@@ -10,6 +18,20 @@ public enum ShipmentStatus {
     RETURNED("Returned to sender"),
     CANCELLED("Cancelled");
     
+    private static final Map<ShipmentStatus, Set<ShipmentStatus>> PREDECESSORS = new EnumMap<>(ShipmentStatus.class);
+    
+    static {
+        for (ShipmentStatus target : values()) {
+            EnumSet<ShipmentStatus> predecessors = EnumSet.noneOf(ShipmentStatus.class);
+            for (ShipmentStatus source : values()) {
+                if (source.canTransitionTo(target)) {
+                    predecessors.add(source);
+                }
+            }
+            PREDECESSORS.put(target, Collections.unmodifiableSet(predecessors));
+        }
+    }
+    
     private final String displayName;
     
     ShipmentStatus(String displayName) {
@@ -24,6 +46,20 @@ public enum ShipmentStatus {
         return this == DELIVERED || this == RETURNED || this == CANCELLED;
     }
     
+    // Statuses from which canTransitionTo(this) holds, derived once from the transition table
+    public Set<ShipmentStatus> getLegalPredecessors() {
+        return PREDECESSORS.get(this);
+    }
+    
+    public static List<ShipmentStatus> terminalStatuses() {
+        return Arrays.stream(values()).filter(ShipmentStatus::isTerminal).toList();
+    }
+    
+    // Non-terminal statuses; overdue queries match these with $in so the partial index applies
+    public static List<ShipmentStatus> activeStatuses() {
+        return Arrays.stream(values()).filter(status -> !status.isTerminal()).toList();
+    }
+    
     public boolean canTransitionTo(ShipmentStatus newStatus) {
         // Prevent transitions from terminal states
         if (this.isTerminal()) {
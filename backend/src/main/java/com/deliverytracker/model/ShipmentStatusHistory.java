@@ -0,0 +1,64 @@
+package com.deliverytracker.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+// Complete, append-only status history, projected from shipment events by the read model. Keyed by event id so
+// a redelivered event cannot add a second entry.
+@Document(collection = "shipment_status_history")
+public class ShipmentStatusHistory {
+    
+    @Id
+    @JsonIgnore
+    private String eventId;
+    
+    private String shipmentId;
+    private ShipmentStatus status;
+    private ShipmentStatus previousStatus;
+    private LocalDateTime changedAt;
+    
+    public ShipmentStatusHistory() {}
+    
+    public String getEventId() {
+        return eventId;
+    }
+    
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+    
+    public String getShipmentId() {
+        return shipmentId;
+    }
+    
+    public void setShipmentId(String shipmentId) {
+        this.shipmentId = shipmentId;
+    }
+    
+    public ShipmentStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(ShipmentStatus status) {
+        this.status = status;
+    }
+    
+    public ShipmentStatus getPreviousStatus() {
+        return previousStatus;
+    }
+    
+    public void setPreviousStatus(ShipmentStatus previousStatus) {
+        this.previousStatus = previousStatus;
+    }
+    
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+    
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+}
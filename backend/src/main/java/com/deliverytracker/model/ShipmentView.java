@@ -0,0 +1,104 @@
+package com.deliverytracker.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+// Latest known state of a shipment, projected from shipment-events by the read-model consumer
+@Document(collection = "shipment_views")
+public class ShipmentView {
+    
+    @Id
+    private String id;
+    
+    private String trackingNumber;
+    
+    private String origin;
+    
+    private String destination;
+    
+    private ShipmentStatus status;
+    
+    private LocalDateTime estimatedDelivery;
+    
+    private boolean deleted;
+    
+    private String lastEventId;
+    
+    private LocalDateTime lastEventAt;
+    
+    public ShipmentView() {}
+    
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public String getTrackingNumber() {
+        return trackingNumber;
+    }
+    
+    public void setTrackingNumber(String trackingNumber) {
+        this.trackingNumber = trackingNumber;
+    }
+    
+    public String getOrigin() {
+        return origin;
+    }
+    
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+    
+    public String getDestination() {
+        return destination;
+    }
+    
+    public void setDestination(String destination) {
+        this.destination = destination;
+    }
+    
+    public ShipmentStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(ShipmentStatus status) {
+        this.status = status;
+    }
+    
+    public LocalDateTime getEstimatedDelivery() {
+        return estimatedDelivery;
+    }
+    
+    public void setEstimatedDelivery(LocalDateTime estimatedDelivery) {
+        this.estimatedDelivery = estimatedDelivery;
+    }
+    
+    public boolean isDeleted() {
+        return deleted;
+    }
+    
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
+    
+    public String getLastEventId() {
+        return lastEventId;
+    }
+    
+    public void setLastEventId(String lastEventId) {
+        this.lastEventId = lastEventId;
+    }
+    
+    public LocalDateTime getLastEventAt() {
+        return lastEventAt;
+    }
+    
+    public void setLastEventAt(LocalDateTime lastEventAt) {
+        this.lastEventAt = lastEventAt;
+    }
+}
@@ -0,0 +1,33 @@
+package com.deliverytracker.model;
+
+import java.time.LocalDateTime;
+
+// One status change embedded in Shipment.recentHistory; entries are in order, so the previous status is the one before
+public class StatusHistoryEntry {
+    
+    private ShipmentStatus status;
+    private LocalDateTime changedAt;
+    
+    public StatusHistoryEntry() {}
+    
+    public StatusHistoryEntry(ShipmentStatus status, LocalDateTime changedAt) {
+        this.status = status;
+        this.changedAt = changedAt;
+    }
+    
+    public ShipmentStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(ShipmentStatus status) {
+        this.status = status;
+    }
+    
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+    
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+}
@@ -0,0 +1,24 @@
+package com.deliverytracker.repository;
+
+import com.deliverytracker.model.Shipment;
+import com.deliverytracker.model.ShipmentStatus;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Only instantiated by the reactive profile; the servlet stack uses ShipmentRepository
+@Repository
+public interface ReactiveShipmentRepository extends ReactiveMongoRepository<Shipment, String> {
+    
+    Mono<Shipment> findByTrackingNumber(String trackingNumber);
+    
+    Flux<Shipment> findByStatus(ShipmentStatus status);
+    
+    @Query("{ 'estimatedDelivery': { $lt: ?0 }, 'status': { $in: ?1 } }")
+    Flux<Shipment> findOverdueShipments(LocalDateTime date, List<ShipmentStatus> activeStatuses);
+}
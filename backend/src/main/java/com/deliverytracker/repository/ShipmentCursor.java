@@ -0,0 +1,38 @@
+package com.deliverytracker.repository;
+
+import com.deliverytracker.exception.BusinessException;
+import com.deliverytracker.model.Shipment;
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Position in the (createdAt desc, _id desc) ordering, handed to clients as an opaque token
+public record ShipmentCursor(LocalDateTime createdAt, String id) {
+    
+    private static final char SEPARATOR = '|';
+    
+    public static ShipmentCursor of(Shipment shipment) {
+        return new ShipmentCursor(shipment.getCreatedAt(), shipment.getId());
+    }
+    
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public static ShipmentCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator <= 0 || !ObjectId.isValid(raw.substring(separator + 1))) {
+                throw new BusinessException("Invalid cursor");
+            }
+            return new ShipmentCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException("Invalid cursor", e);
+        }
+    }
+}
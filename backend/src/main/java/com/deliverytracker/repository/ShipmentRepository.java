@@ -1,9 +1,12 @@
 package com.deliverytracker.repository;
 
+import com.deliverytracker.dto.DailyCount;
+import com.deliverytracker.dto.StatusCount;
 import com.deliverytracker.model.Shipment;
 import com.deliverytracker.model.ShipmentStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,26 +14,32 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
-public interface ShipmentRepository extends MongoRepository<Shipment, String> {
-    
-    Optional<Shipment> findByTrackingNumber(String trackingNumber);
+public interface ShipmentRepository extends MongoRepository<Shipment, String>, ShipmentRepositoryCustom {
     
     List<Shipment> findByStatus(ShipmentStatus status);
     
     Page<Shipment> findByStatusIn(List<ShipmentStatus> statuses, Pageable pageable);
     
-    @Query("{ $or: [ { 'origin': { $regex: ?0, $options: 'i' } }, { 'destination': { $regex: ?0, $options: 'i' } } ] }")
-    List<Shipment> findByLocation(String location);
-    
     @Query("{ 'createdAt': { $gte: ?0, $lte: ?1 } }")
     List<Shipment> findByDateRange(LocalDateTime start, LocalDateTime end);
     
-    @Query("{ 'estimatedDelivery': { $lt: ?0 }, 'status': { $nin: ?1 } }")
-    List<Shipment> findOverdueShipments(LocalDateTime date, List<ShipmentStatus> terminalStatuses);
+    @Query("{ 'estimatedDelivery': { $lt: ?0 }, 'status': { $in: ?1 } }")
+    List<Shipment> findOverdueShipments(LocalDateTime date, List<ShipmentStatus> activeStatuses);
     
     @Query(value = "{ 'status': ?0 }", count = true)
     long countByStatus(ShipmentStatus status);
+    
+    @Query(value = "{ 'estimatedDelivery': { $lt: ?0 }, 'status': { $in: ?1 } }", count = true)
+    long countOverdueShipments(LocalDateTime date, List<ShipmentStatus> activeStatuses);
+    
+    @Aggregation("{ $group: { _id: '$status', count: { $sum: 1 } } }")
+    List<StatusCount> countGroupedByStatus();
+    
+    @Aggregation(pipeline = {
+        "{ $match: { 'createdAt': { $gte: ?0 } } }",
+        "{ $group: { _id: { $dateToString: { format: '%Y-%m-%d', date: '$createdAt', timezone: ?1 } }, count: { $sum: 1 } } }"
+    })
+    List<DailyCount> countCreatedPerDaySince(LocalDateTime since, String timezone);
 }
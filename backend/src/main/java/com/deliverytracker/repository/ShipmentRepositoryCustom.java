@@ -0,0 +1,46 @@
+package com.deliverytracker.repository;
+
+import com.deliverytracker.dto.StatusCount;
+import com.deliverytracker.model.Shipment;
+import com.deliverytracker.model.ShipmentStatus;
+import com.deliverytracker.model.StatusHistoryEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public interface ShipmentRepositoryCustom {
+    
+    // Atomically moves the shipment to target if its current status is a legal predecessor and appends the change
+    // to recentHistory; returns the prior state without its history
+    Optional<Shipment> transitionStatus(String id, ShipmentStatus target, LocalDateTime updatedAt);
+    
+    // Unordered bulk insert; returns the error message for every index that failed
+    Map<Integer, String> insertAll(List<Shipment> shipments);
+    
+    // Unordered bulk of conditional status updates; returns the IDs whose update was applied
+    Set<String> updateStatuses(List<StatusChange> changes, LocalDateTime updatedAt);
+    
+    // Keyset page in (createdAt desc, _id desc) order after the cursor; a null cursor starts from the newest
+    List<Shipment> findSlice(Criteria filter, ShipmentCursor after, int limit);
+    
+    // Shipments whose origin or destination words start with every word of the query, best matches first
+    Slice<Shipment> searchByLocation(String query, Pageable pageable);
+    
+    // Live collection first, then the archive via its tracking number index; archived shipments are read-only
+    Optional<Shipment> findByTrackingNumber(String trackingNumber);
+    
+    // Shipments moved out of the live collection per status, counted from the archive index
+    List<StatusCount> countArchivedGroupedByStatus();
+    
+    // Records that the overdue event for this deadline was emitted; false if some instance already did
+    boolean markOverdueNotified(String id, LocalDateTime estimatedDelivery);
+    
+    // history holds every step from expected to target, oldest first
+    record StatusChange(String id, ShipmentStatus expected, ShipmentStatus target, List<StatusHistoryEntry> history) {}
+}
@@ -0,0 +1,252 @@
+package com.deliverytracker.repository;
+
+import com.deliverytracker.dto.StatusCount;
+import com.deliverytracker.model.LocationNormalizer;
+import com.deliverytracker.model.Shipment;
+import com.deliverytracker.model.ShipmentArchiveEntry;
+import com.deliverytracker.model.ShipmentStatus;
+import com.deliverytracker.model.StatusHistoryEntry;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+public class ShipmentRepositoryCustomImpl implements ShipmentRepositoryCustom {
+    
+    private static final String STATUS_BATCH_FIELD = "statusBatch";
+    
+    private final MongoTemplate mongoTemplate;
+    private final int searchMaxCandidates;
+    
+    @Autowired
+    public ShipmentRepositoryCustomImpl(MongoTemplate mongoTemplate,
+                                        @Value("${app.search.max-candidates:1000}") int searchMaxCandidates) {
+        this.mongoTemplate = mongoTemplate;
+        this.searchMaxCandidates = searchMaxCandidates;
+    }
+    
+    @Override
+    public Optional<Shipment> transitionStatus(String id, ShipmentStatus target, LocalDateTime updatedAt) {
+        Query query = Query.query(where("_id").is(id).and("status").in(target.getLegalPredecessors()));
+        // Callers only need the prior status and identity, not up to RECENT_HISTORY_LIMIT embedded entries
+        query.fields().exclude("recentHistory");
+        Update update = statusUpdate(target, updatedAt, List.of(new StatusHistoryEntry(target, updatedAt)));
+        
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+            query, update, FindAndModifyOptions.options().returnNew(false), Shipment.class));
+    }
+    
+    // Shared with ReactiveShipmentService: sets the status and appends to the capped history in one update
+    public static Update statusUpdate(ShipmentStatus target, LocalDateTime updatedAt, List<StatusHistoryEntry> entries) {
+        Update update = new Update().set("status", target).set("updatedAt", updatedAt).inc("historyCount", entries.size());
+        return update.push("recentHistory").slice(-Shipment.RECENT_HISTORY_LIMIT).each(entries.toArray());
+    }
+    
+    @Override
+    public Map<Integer, String> insertAll(List<Shipment> shipments) {
+        Map<Integer, String> failures = new HashMap<>();
+        if (shipments.isEmpty()) {
+            return failures;
+        }
+        
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, Shipment.class);
+        bulk.insert(shipments);
+        
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                failures.put(error.getIndex(), error.getMessage());
+            }
+        }
+        return failures;
+    }
+    
+    @Override
+    public Set<String> updateStatuses(List<StatusChange> changes, LocalDateTime updatedAt) {
+        Set<String> applied = new HashSet<>();
+        if (changes.isEmpty()) {
+            return applied;
+        }
+        
+        // Each batch stamps the shipments it changes with its own token, so the ones that landed can be told
+        // apart from ones changed concurrently, even by another batch in the same millisecond
+        String batch = new ObjectId().toHexString();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, Shipment.class);
+        for (StatusChange change : changes) {
+            bulk.updateOne(
+                Query.query(where("_id").is(change.id()).and("status").is(change.expected())),
+                statusUpdate(change.target(), updatedAt, change.history()).set(STATUS_BATCH_FIELD, batch));
+        }
+        
+        BulkWriteResult result;
+        try {
+            result = bulk.execute();
+        } catch (BulkOperationException e) {
+            result = null;
+        }
+        
+        if (result != null && result.getModifiedCount() == changes.size()) {
+            changes.forEach(change -> applied.add(change.id()));
+            return applied;
+        }
+        
+        // Some conditions did not match (concurrent change or write error): find out which ones landed
+        List<String> ids = changes.stream().map(StatusChange::id).toList();
+        Query landed = Query.query(where("_id").in(ids).and(STATUS_BATCH_FIELD).is(batch));
+        landed.fields().include("_id");
+        mongoTemplate.find(landed, Shipment.class).forEach(shipment -> applied.add(shipment.getId()));
+        return applied;
+    }
+    
+    @Override
+    public List<Shipment> findSlice(Criteria filter, ShipmentCursor after, int limit) {
+        return mongoTemplate.find(sliceQuery(filter, after, limit), Shipment.class);
+    }
+    
+    // The query factories below are shared with QueryPlanService, so its explain probes are the real queries
+    public static Query sliceQuery(Criteria filter, ShipmentCursor after, int limit) {
+        Criteria criteria = filter;
+        if (after != null) {
+            // Seeks straight to the cursor through the (createdAt, _id) index instead of skipping
+            criteria = new Criteria().andOperator(filter, new Criteria().orOperator(
+                where("createdAt").lt(after.createdAt()),
+                where("createdAt").is(after.createdAt()).and("_id").lt(new ObjectId(after.id()))));
+        }
+        Query query = new Query(criteria);
+        return query.with(Sort.by(Sort.Direction.DESC, "createdAt", "_id")).limit(limit);
+    }
+    
+    public static Criteria overdueCriteria(LocalDateTime now) {
+        return where("estimatedDelivery").lt(now).and("status").in(ShipmentStatus.activeStatuses());
+    }
+    
+    public static Query trackingNumberQuery(String trackingNumber) {
+        return Query.query(where("trackingNumber").is(trackingNumber));
+    }
+    
+    @Override
+    public boolean markOverdueNotified(String id, LocalDateTime estimatedDelivery) {
+        Query query = Query.query(where("_id").is(id).and("overdueNotifiedFor").ne(estimatedDelivery));
+        return mongoTemplate.updateFirst(query, new Update().set("overdueNotifiedFor", estimatedDelivery), Shipment.class)
+            .getModifiedCount() > 0;
+    }
+    
+    @Override
+    public Optional<Shipment> findByTrackingNumber(String trackingNumber) {
+        Shipment live = mongoTemplate.findOne(trackingNumberQuery(trackingNumber), Shipment.class);
+        if (live != null) {
+            return Optional.of(live);
+        }
+        return findArchived(trackingNumber, entry -> mongoTemplate.findOne(
+            Query.query(where("_id").is(entry.getShipmentId())), Shipment.class, entry.getCollection()));
+    }
+    
+    @Override
+    public List<StatusCount> countArchivedGroupedByStatus() {
+        // Recounted from the archive index on every call, so an interrupted or repeated archiving run cannot make
+        // the totals drift; a shipment indexed but not yet removed from the live collection counts twice until
+        // the next run removes it. One count scan per terminal status over the index's status index.
+        List<StatusCount> counts = new ArrayList<>();
+        for (ShipmentStatus status : ShipmentStatus.terminalStatuses()) {
+            long count = mongoTemplate.count(Query.query(where("status").is(status)), ShipmentArchiveEntry.class);
+            if (count > 0) {
+                counts.add(new StatusCount(status, count));
+            }
+        }
+        return counts;
+    }
+    
+    private Optional<Shipment> findArchived(String trackingNumber, Function<ShipmentArchiveEntry, Shipment> reader) {
+        ShipmentArchiveEntry entry = mongoTemplate.findById(trackingNumber, ShipmentArchiveEntry.class);
+        return entry != null ? Optional.ofNullable(reader.apply(entry)) : Optional.empty();
+    }
+    
+    @Override
+    public Slice<Shipment> searchByLocation(String query, Pageable pageable) {
+        if (LocationNormalizer.tokens(query).isEmpty() || pageable.getOffset() >= searchMaxCandidates) {
+            return new SliceImpl<>(List.of(), pageable, false);
+        }
+        
+        Aggregation aggregation = searchAggregation(query, pageable, searchMaxCandidates);
+        List<Shipment> results = new ArrayList<>(
+            mongoTemplate.aggregate(aggregation, Shipment.class, Shipment.class).getMappedResults());
+        boolean hasNext = results.size() > pageable.getPageSize();
+        if (hasNext) {
+            results.remove(results.size() - 1);
+        }
+        return new SliceImpl<>(results, pageable, hasNext);
+    }
+    
+    // Expects a query with at least one token
+    public static Aggregation searchAggregation(String query, Pageable pageable, int maxCandidates) {
+        String key = LocationNormalizer.normalize(query);
+        List<String> tokens = LocationNormalizer.tokens(query);
+        
+        // Tokens are [a-z0-9] only, so the anchored regexes need no escaping and become index range scans
+        List<Criteria> prefixes = new ArrayList<>();
+        for (String token : tokens) {
+            prefixes.add(where("locationTokens").regex("^" + token));
+        }
+        Criteria match = prefixes.size() == 1 ? prefixes.get(0) : new Criteria().andOperator(prefixes);
+        
+        // 3: whole location equals the query, 2: a location starts with it, 1: word-prefix match only
+        Document score = new Document("$switch", new Document("branches", List.of(
+            new Document("case", anyLocationEquals(key)).append("then", 3),
+            new Document("case", anyLocationStartsWith(key)).append("then", 2)))
+            .append("default", 1));
+        
+        // Only the newest max-candidates matches are scored, so a broad query sorts a bounded set in memory
+        // instead of every match; the top-k sort before the limit keeps just that many documents at a time
+        return Aggregation.newAggregation(
+            Aggregation.match(match),
+            Aggregation.sort(Sort.by(Sort.Direction.DESC, "createdAt", "_id")),
+            Aggregation.limit(maxCandidates),
+            context -> new Document("$addFields", new Document("searchScore", score)),
+            context -> new Document("$sort", new Document("searchScore", -1).append("createdAt", -1).append("_id", -1)),
+            Aggregation.skip(pageable.getOffset()),
+            Aggregation.limit(pageable.getPageSize() + 1L));
+    }
+    
+    private static Document anyLocationEquals(String key) {
+        return new Document("$or", List.of(
+            new Document("$eq", List.of("$originKey", key)),
+            new Document("$eq", List.of("$destinationKey", key))));
+    }
+    
+    private static Document anyLocationStartsWith(String key) {
+        return new Document("$or", List.of(startsWith("$originKey", key), startsWith("$destinationKey", key)));
+    }
+    
+    private static Document startsWith(String field, String prefix) {
+        Document indexOf = new Document("$indexOfCP", List.of(new Document("$ifNull", List.of(field, "")), prefix));
+        return new Document("$eq", List.of(indexOf, 0));
+    }
+}
@@ -0,0 +1,14 @@
+package com.deliverytracker.repository;
+
+import com.deliverytracker.model.ShipmentStatusHistory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ShipmentStatusHistoryRepository extends MongoRepository<ShipmentStatusHistory, String> {
+    
+    // Served by the (shipmentId, changedAt) index
+    Slice<ShipmentStatusHistory> findByShipmentIdOrderByChangedAtDesc(String shipmentId, Pageable pageable);
+}
@@ -0,0 +1,83 @@
+package com.deliverytracker.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Optional;
+
+// Verified token -> user. A repeat request with the same token skips signature verification and the user
+// lookup; each entry expires at the token's exp, or after maxTtl so changes to the user are picked up.
+public class JwtAuthenticationCache {
+    
+    private static final String CACHE_NAME = "jwt.authentications";
+    
+    private final JwtTokenProvider tokenProvider;
+    private final UserDetailsService userDetailsService;
+    private final Cache<String, CachedUser> cache;
+    
+    public JwtAuthenticationCache(JwtTokenProvider tokenProvider, UserDetailsService userDetailsService,
+                                  MeterRegistry meterRegistry, long maxSize, Duration maxTtl) {
+        this.tokenProvider = tokenProvider;
+        this.userDetailsService = userDetailsService;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new Expiry<String, CachedUser>() {
+                @Override
+                public long expireAfterCreate(String token, CachedUser user, long currentTime) {
+                    long untilExpiry = user.expiresAtMillis() - System.currentTimeMillis();
+                    return Math.max(0, Math.min(Duration.ofMillis(untilExpiry).toNanos(), maxTtl.toNanos()));
+                }
+                
+                @Override
+                public long expireAfterUpdate(String token, CachedUser user, long currentTime, long currentDuration) {
+                    return expireAfterCreate(token, user, currentTime);
+                }
+                
+                @Override
+                public long expireAfterRead(String token, CachedUser user, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+        
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+    
+    public Optional<UserDetails> resolve(String token) {
+        CachedUser cached = cache.getIfPresent(token);
+        if (cached != null) {
+            return Optional.of(cached.user());
+        }
+        
+        // Invalid tokens are not cached; a flood of them costs what it did before
+        Optional<Claims> claims = tokenProvider.parseClaims(token);
+        if (claims.isEmpty()) {
+            return Optional.empty();
+        }
+        
+        UserDetails user;
+        try {
+            user = userDetailsService.loadUserByUsername(claims.get().getSubject());
+        } catch (UsernameNotFoundException e) {
+            return Optional.empty();
+        }
+        
+        Date expiration = claims.get().getExpiration();
+        if (expiration != null) {
+            cache.put(token, new CachedUser(user, expiration.getTime()));
+        }
+        return Optional.of(user);
+    }
+    
+    private record CachedUser(UserDetails user, long expiresAtMillis) {}
+}
@@ -0,0 +1,42 @@
+package com.deliverytracker.security;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+// Reactive counterpart of JwtAuthenticationFilter; the authentication lives in the Reactor context
+public class JwtAuthenticationWebFilter implements WebFilter {
+    
+    private final JwtAuthenticationCache authenticationCache;
+    
+    public JwtAuthenticationWebFilter(JwtAuthenticationCache authenticationCache) {
+        this.authenticationCache = authenticationCache;
+    }
+    
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String jwt = getJwtFromRequest(exchange);
+        if (!StringUtils.hasText(jwt)) {
+            return chain.filter(exchange);
+        }
+        
+        // Cache hits are a map lookup and misses verify the signature in memory, so nothing here blocks
+        return authenticationCache.resolve(jwt)
+            .map(userDetails -> chain.filter(exchange).contextWrite(ReactiveSecurityContextHolder.withAuthentication(
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()))))
+            .orElseGet(() -> chain.filter(exchange));
+    }
+    
+    private String getJwtFromRequest(ServerWebExchange exchange) {
+        String bearerToken = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
+            return bearerToken.substring(7);
+        }
+        return null;
+    }
+}
@@ -11,6 +11,7 @@ import javax.crypto.SecretKey;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Date;
+import java.util.Optional;
 
 @Component
 public class JwtTokenProvider {
@@ -18,12 +19,15 @@ public class JwtTokenProvider {
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
     
     private final SecretKey secretKey;
+    private final JwtParser parser;
     private final int jwtExpirationMs;
     
     public JwtTokenProvider(
             @Value("${app.jwtSecret:mySecretKey12345678901234567890}") String jwtSecret,
             @Value("${app.jwtExpirationMs:86400000}") int jwtExpirationMs) {
         this.secretKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        // Immutable and thread-safe, so one parser serves every request
+        this.parser = Jwts.parser().verifyWith(secretKey).build();
         this.jwtExpirationMs = jwtExpirationMs;
     }
     
@@ -43,26 +47,21 @@ public class JwtTokenProvider {
             .compact();
     }
     
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-            .verifyWith(secretKey)
-            .build()
-            .parseSignedClaims(token)
-            .getPayload();
-        
-        return claims.getSubject();
-    }
-    
-    public boolean validateToken(String authToken) {
+    // Verifies the signature and expiry once and returns the claims, or empty if the token is not valid
+    public Optional<Claims> parseClaims(String token) {
         try {
-            Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(authToken);
-            return true;
+            return Optional.of(parser.parseSignedClaims(token).getPayload());
         } catch (JwtException | IllegalArgumentException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
+            return Optional.empty();
         }
-        return false;
+    }
+    
+    public String getUsernameFromToken(String token) {
+        return parser.parseSignedClaims(token).getPayload().getSubject();
+    }
+    
+    public boolean validateToken(String authToken) {
+        return parseClaims(authToken).isPresent();
     }
 }
@@ -0,0 +1,74 @@
+package com.deliverytracker.security;
+
+import com.deliverytracker.config.WebSocketConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(StompAuthChannelInterceptor.class);
+    
+    private final JwtAuthenticationCache authenticationCache;
+    
+    @Autowired
+    public StompAuthChannelInterceptor(JwtAuthenticationCache authenticationCache) {
+        this.authenticationCache = authenticationCache;
+    }
+    
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) {
+            return message;
+        }
+        
+        if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+            String bearerToken = accessor.getFirstNativeHeader("Authorization");
+            if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
+                String jwt = bearerToken.substring(7);
+                authenticationCache.resolve(jwt).ifPresent(user -> accessor.setUser(
+                    new UsernamePasswordAuthenticationToken(user.getUsername(), null, user.getAuthorities())));
+            }
+        } else if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            String destination = accessor.getDestination();
+            // The simple broker matches subscriptions as patterns, so /topic/tracking/** would be the global feed
+            if (destination != null && isPattern(destination)) {
+                logger.warn("Rejected pattern subscription to {}", destination);
+                throw new MessageDeliveryException("Pattern subscriptions are not supported: " + destination);
+            }
+            // Per-tracking-number topics are as public as the tracking endpoint; the global feed is not
+            if (destination == null || !destination.startsWith(WebSocketConfig.TRACKING_TOPIC_PREFIX)) {
+                if (accessor.getUser() == null) {
+                    logger.warn("Rejected unauthenticated subscription to {}", destination);
+                    throw new MessageDeliveryException("Authentication required for " + destination);
+                }
+            }
+        } else if (StompCommand.SEND.equals(accessor.getCommand())) {
+            // Only the server publishes shipment events; clients could otherwise forge them for everyone
+            String destination = accessor.getDestination();
+            if (destination == null || destination.equals(WebSocketConfig.BROKER_PREFIX)
+                    || destination.startsWith(WebSocketConfig.BROKER_PREFIX + "/")) {
+                logger.warn("Rejected client message to broker destination {}", destination);
+                throw new MessageDeliveryException("Clients cannot send to " + destination);
+            }
+        }
+        
+        return message;
+    }
+    
+    private static boolean isPattern(String destination) {
+        return destination.indexOf('*') >= 0 || destination.indexOf('?') >= 0 || destination.indexOf('{') >= 0;
+    }
+}
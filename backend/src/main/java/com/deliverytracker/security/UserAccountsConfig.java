@@ -0,0 +1,56 @@
+package com.deliverytracker.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.time.Duration;
+
+// Users and token verification shared by the servlet and reactive security configurations
+@Configuration
+public class UserAccountsConfig {
+    
+    @Value("${ADMIN_PASSWORD:admin123}")
+    private String adminPassword;
+    
+    @Value("${USER_PASSWORD:user123}")
+    private String userPassword;
+    
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+    
+    @Bean
+    public UserDetailsService userDetailsService() {
+        UserDetails admin = User.builder()
+            .username("admin")
+            .password(passwordEncoder().encode(adminPassword))
+            .roles("ADMIN")
+            .build();
+        
+        UserDetails user = User.builder()
+            .username("user")
+            .password(passwordEncoder().encode(userPassword))
+            .roles("USER")
+            .build();
+        
+        return new InMemoryUserDetailsManager(admin, user);
+    }
+    
+    @Bean
+    public JwtAuthenticationCache jwtAuthenticationCache(
+            JwtTokenProvider jwtTokenProvider,
+            MeterRegistry meterRegistry,
+            @Value("${app.jwt-cache.max-size:10000}") long maxSize,
+            @Value("${app.jwt-cache.max-ttl:PT10M}") Duration maxTtl) {
+        return new JwtAuthenticationCache(jwtTokenProvider, userDetailsService(), meterRegistry, maxSize, maxTtl);
+    }
+}
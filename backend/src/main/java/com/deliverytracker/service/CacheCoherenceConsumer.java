@@ -0,0 +1,194 @@
+package com.deliverytracker.service;
+
+import com.deliverytracker.cache.ShipmentTrackingCache;
+import com.deliverytracker.config.CacheCoherenceConfig;
+import com.deliverytracker.config.InstanceInfo;
+import com.deliverytracker.event.ShipmentEvent;
+import com.deliverytracker.event.ShipmentEventCodecs;
+import com.deliverytracker.event.ShipmentEventType;
+import com.deliverytracker.model.Shipment;
+import com.deliverytracker.model.ShipmentStatus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// Keeps this instance's in-memory state in step with changes made by other instances. Every instance reads the
+// whole shipment-events topic in its own consumer group; for events another instance made, recognised by the
+// origin header the relay copies from the outbox row, it drops outdated
+// tracking cache entries, updates the status counters and republishes the event in-process, so the overdue
+// monitor, the tracking number filter and this instance's WebSocket clients see it as if it were local.
+// Staleness is bounded by the tracking cache TTL; normally it is the relay delay plus consumer lag.
+@Component
+public class CacheCoherenceConsumer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CacheCoherenceConsumer.class);
+    
+    private final ShipmentEventCodecs codecs;
+    private final ShipmentTrackingCache trackingCache;
+    private final ShipmentStatisticsService statisticsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String instanceId;
+    private final Duration maxLag;
+    
+    // Remote events already applied, so a redelivered or twice-relayed event is not counted again
+    private final Cache<String, Boolean> seenEvents;
+    
+    private final Timer lagTimer;
+    private final Map<ShipmentEventType, Counter> appliedCounters = new EnumMap<>(ShipmentEventType.class);
+    private final Counter skippedCounter;
+    private final Counter invalidatedCounter;
+    private final Counter flushCounter;
+    
+    @Autowired
+    public CacheCoherenceConsumer(ShipmentEventCodecs codecs,
+                                  ShipmentTrackingCache trackingCache,
+                                  ShipmentStatisticsService statisticsService,
+                                  ApplicationEventPublisher eventPublisher,
+                                  InstanceInfo instanceInfo,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.cache-coherence.max-lag:PT10S}") Duration maxLag,
+                                  @Value("${app.cache-coherence.seen-events:100000}") long seenEvents) {
+        this.codecs = codecs;
+        this.trackingCache = trackingCache;
+        this.statisticsService = statisticsService;
+        this.eventPublisher = eventPublisher;
+        this.instanceId = instanceInfo.getInstanceId();
+        this.maxLag = maxLag;
+        this.seenEvents = Caffeine.newBuilder()
+            .maximumSize(seenEvents)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+        
+        this.lagTimer = Timer.builder("shipments.cache.invalidation.lag")
+            .description("Time from a change on another instance until this instance applied it")
+            .register(meterRegistry);
+        for (ShipmentEventType type : ShipmentEventType.values()) {
+            appliedCounters.put(type, Counter.builder("shipments.cache.coherence.applied")
+                .description("Changes made by other instances applied to this instance's state")
+                .tag("type", type.name())
+                .register(meterRegistry));
+        }
+        this.skippedCounter = meterRegistry.counter("shipments.cache.coherence.skipped");
+        this.invalidatedCounter = meterRegistry.counter("shipments.cache.coherence.invalidated");
+        this.flushCounter = meterRegistry.counter("shipments.cache.coherence.flushes");
+    }
+    
+    // Starts at the end of the topic: there is nothing cached yet that older changes could affect
+    @KafkaListener(
+        id = "shipment-cache-coherence",
+        topics = KafkaProducerService.TOPIC_NAME,
+        groupId = "#{'${spring.kafka.consumer.group-id}-cache-' + @instanceInfo.instanceId}",
+        containerFactory = CacheCoherenceConfig.LISTENER_FACTORY,
+        autoStartup = "${app.cache-coherence.enabled:true}",
+        properties = "auto.offset.reset=latest")
+    public void consume(List<ConsumerRecord<String, byte[]>> records) {
+        long maxLagMillis = 0;
+        for (ConsumerRecord<String, byte[]> record : records) {
+            // Changes made here were applied when they were made
+            if (isOwn(record)) {
+                skippedCounter.increment();
+                continue;
+            }
+            
+            ShipmentEvent event;
+            try {
+                Header codec = record.headers().lastHeader(KafkaProducerService.CODEC_HEADER);
+                event = codecs.decode(codec != null ? codec.value() : null, record.value());
+            } catch (RuntimeException e) {
+                // Counted by the read-model consumer, which sees the same records
+                logger.debug("Skipping undecodable record {}-{}@{}", record.topic(), record.partition(), record.offset());
+                continue;
+            }
+            if (event.getEventId() == null || seenEvents.asMap().putIfAbsent(event.getEventId(), Boolean.TRUE) != null) {
+                skippedCounter.increment();
+                continue;
+            }
+            
+            try {
+                apply(event);
+            } catch (RuntimeException e) {
+                // A failed listener must not stop later changes from being applied
+                logger.error("Failed to apply shipment event {} from another instance: {}",
+                    event.getEventId(), e.getMessage(), e);
+            }
+            
+            if (event.getTimestamp() != null) {
+                long lagMillis = System.currentTimeMillis()
+                    - event.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                lagTimer.record(Duration.ofMillis(Math.max(0, lagMillis)));
+                maxLagMillis = Math.max(maxLagMillis, lagMillis);
+            }
+        }
+        
+        // This far behind, entries for changes still queued behind this batch may be stale as well
+        if (maxLagMillis > maxLag.toMillis()) {
+            logger.warn("Shipment changes from other instances are arriving {} ms late, flushing the tracking cache",
+                maxLagMillis);
+            trackingCache.invalidateAll();
+            flushCounter.increment();
+        }
+    }
+    
+    // Outbox rows written before the origin was recorded carry no header and are treated as remote
+    private boolean isOwn(ConsumerRecord<String, byte[]> record) {
+        Header origin = record.headers().lastHeader(KafkaProducerService.ORIGIN_HEADER);
+        return origin != null && instanceId.equals(new String(origin.value(), StandardCharsets.UTF_8));
+    }
+    
+    private void apply(ShipmentEvent event) {
+        switch (event.getType()) {
+            case SHIPMENT_CREATED -> {
+                if (event.getNewStatus() != null) {
+                    statisticsService.recordCreated(toShipment(event, event.getNewStatus()));
+                }
+            }
+            case SHIPMENT_STATUS_UPDATED -> {
+                if (trackingCache.invalidate(event.getTrackingNumber(), event.getTimestamp())) {
+                    invalidatedCounter.increment();
+                }
+                if (event.getOldStatus() != null && event.getNewStatus() != null) {
+                    statisticsService.recordStatusChange(event.getOldStatus(), event.getNewStatus());
+                }
+            }
+            case SHIPMENT_DELETED -> {
+                if (trackingCache.invalidate(event.getTrackingNumber(), null)) {
+                    invalidatedCounter.increment();
+                }
+                if (event.getOldStatus() != null) {
+                    statisticsService.recordDeleted(toShipment(event, event.getOldStatus()));
+                }
+            }
+            default -> {
+                // Overdue announcements change nothing that is cached
+            }
+        }
+        appliedCounters.get(event.getType()).increment();
+        eventPublisher.publishEvent(event);
+    }
+    
+    private static Shipment toShipment(ShipmentEvent event, ShipmentStatus status) {
+        Shipment shipment = new Shipment(event.getOrigin(), event.getDestination(), status);
+        shipment.setId(event.getShipmentId());
+        shipment.setTrackingNumber(event.getTrackingNumber());
+        shipment.setCreatedAt(event.getTimestamp());
+        return shipment;
+    }
+}
@@ -1,66 +1,100 @@
 package com.deliverytracker.service;
 
-import com.deliverytracker.model.Shipment;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.deliverytracker.event.ShipmentEvent;
+import com.deliverytracker.event.ShipmentEventCodec;
+import com.deliverytracker.event.ShipmentEventCodecs;
+import com.deliverytracker.event.ShipmentEventType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class KafkaProducerService {
     
     private static final Logger logger = LoggerFactory.getLogger(KafkaProducerService.class);
-    private static final String TOPIC_NAME = "shipment-events";
+    public static final String TOPIC_NAME = "shipment-events";
+    public static final String CODEC_HEADER = "codec";
+    public static final String ORIGIN_HEADER = "origin";
     
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final ShipmentEventCodec codec;
+    private final byte[] codecName;
+    
+    private final MeterRegistry meterRegistry;
+    private final Map<ShipmentEventType, Timer> sentTimers = new EnumMap<>(ShipmentEventType.class);
     
     @Autowired
-    public KafkaProducerService(KafkaTemplate<String, String> kafkaTemplate) {
+    public KafkaProducerService(KafkaTemplate<String, byte[]> kafkaTemplate, ShipmentEventCodecs codecs,
+                                MeterRegistry meterRegistry) {
         this.kafkaTemplate = kafkaTemplate;
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
-    }
-    
-    public void publishShipmentEvent(Shipment shipment, String eventType) {
-        publishShipmentEvent(shipment, eventType, null);
+        this.codec = codecs.producerCodec();
+        this.codecName = codec.name().getBytes(StandardCharsets.UTF_8);
+        this.meterRegistry = meterRegistry;
+        
+        // Time from send() to broker acknowledgement, including time spent in the producer buffer
+        for (ShipmentEventType type : ShipmentEventType.values()) {
+            sentTimers.put(type, sendTimer(type, "success").register(meterRegistry));
+        }
     }
     
-    public void publishShipmentEvent(Shipment shipment, String eventType, String additionalData) {
+    public CompletableFuture<SendResult<String, byte[]>> publish(ShipmentEvent event, String origin) {
+        byte[] payload;
         try {
-            Map<String, Object> event = new HashMap<>();
-            event.put("eventType", eventType);
-            event.put("timestamp", LocalDateTime.now());
-            
-            if (shipment != null) {
-                event.put("shipment", shipment);
-            }
-            
-            if (additionalData != null) {
-                event.put("additionalData", additionalData);
-            }
-            
-            String eventJson = objectMapper.writeValueAsString(event);
-            
-            kafkaTemplate.send(TOPIC_NAME, eventJson)
-                .whenComplete((result, failure) -> {
-                    if (failure != null) {
-                        logger.error("Failed to send event to Kafka: {}", failure.getMessage(), failure);
-                    } else {
-                        logger.debug("Successfully sent event to Kafka: {}", eventType);
-                    }
-                });
-            
-        } catch (JsonProcessingException e) {
+            payload = codec.encode(event);
+        } catch (RuntimeException e) {
             logger.error("Error serializing shipment event: {}", e.getMessage(), e);
+            countFailure(event, e);
+            return CompletableFuture.failedFuture(e);
+        }
+        
+        // Keyed by shipment so every event for one shipment lands on the same partition, in order
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(TOPIC_NAME, event.getShipmentId(), payload);
+        record.headers().add(CODEC_HEADER, codecName);
+        if (origin != null) {
+            record.headers().add(ORIGIN_HEADER, origin.getBytes(StandardCharsets.UTF_8));
         }
+        
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return kafkaTemplate.send(record)
+            .whenComplete((result, failure) -> {
+                if (failure != null) {
+                    sample.stop(sendTimer(event.getType(), "failure").register(meterRegistry));
+                    countFailure(event, failure);
+                    logger.error("Failed to send event to Kafka: {}", failure.getMessage(), failure);
+                } else {
+                    sample.stop(sentTimers.get(event.getType()));
+                    logger.debug("Successfully sent event to Kafka: {}", event.getType());
+                }
+            });
+    }
+    
+    // Sends everything buffered by the producer without waiting for linger.ms
+    public void flush() {
+        kafkaTemplate.flush();
+    }
+    
+    private void countFailure(ShipmentEvent event, Throwable failure) {
+        // KafkaProducerException only wraps the producer's own exception, which is the useful tag
+        Throwable cause = failure.getCause() != null ? failure.getCause() : failure;
+        meterRegistry.counter("shipments.kafka.send.failures",
+            "type", event.getType().name(), "exception", cause.getClass().getSimpleName()).increment();
+    }
+    
+    private static Timer.Builder sendTimer(ShipmentEventType type, String outcome) {
+        return Timer.builder("shipments.kafka.send")
+            .description("Kafka send latency until the broker acknowledges the event")
+            .tag("type", type.name())
+            .tag("outcome", outcome);
     }
 }
@@ -0,0 +1,76 @@
+package com.deliverytracker.service;
+
+import com.deliverytracker.model.LocationNormalizer;
+import com.deliverytracker.model.Shipment;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+// Derives location search keys for shipments written before the keys existed. Idempotent, so it is safe
+// for several instances to run it at once; once everything is keyed it is a single empty index lookup.
+@Component
+public class LocationKeyBackfill {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LocationKeyBackfill.class);
+    private static final int BATCH_SIZE = 1000;
+    
+    private final MongoTemplate mongoTemplate;
+    
+    @Autowired
+    public LocationKeyBackfill(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+    
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        Query query = Query.query(where("locationTokens").exists(false)).cursorBatchSize(BATCH_SIZE);
+        query.fields().include("origin").include("destination");
+        
+        long updated = 0;
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, Shipment.class);
+        int pending = 0;
+        try (Stream<Document> shipments = mongoTemplate.stream(query, Document.class, "shipments")) {
+            for (Document shipment : (Iterable<Document>) shipments::iterator) {
+                String origin = shipment.getString("origin");
+                String destination = shipment.getString("destination");
+                bulk.updateOne(Query.query(where("_id").is(shipment.get("_id"))), new Update()
+                    .set("originKey", LocationNormalizer.normalize(origin))
+                    .set("destinationKey", LocationNormalizer.normalize(destination))
+                    .set("locationTokens", LocationNormalizer.tokens(origin, destination)));
+                
+                if (++pending == BATCH_SIZE) {
+                    bulk.execute();
+                    updated += pending;
+                    pending = 0;
+                    bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, Shipment.class);
+                }
+            }
+            if (pending > 0) {
+                bulk.execute();
+                updated += pending;
+            }
+        } catch (RuntimeException e) {
+            logger.error("Location key backfill stopped after {} shipments: {}", updated, e.getMessage(), e);
+            return;
+        }
+        
+        if (updated > 0) {
+            logger.info("Backfilled location search keys for {} shipments", updated);
+        }
+    }
+}
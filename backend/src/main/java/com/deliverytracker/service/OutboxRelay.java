@@ -0,0 +1,193 @@
+package com.deliverytracker.service;
+
+import com.deliverytracker.config.InstanceInfo;
+import com.deliverytracker.model.OutboxEvent;
+import com.deliverytracker.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@Component
+public class OutboxRelay {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final String LEASE_COLLECTION = "shipment_outbox_lease";
+    private static final String LEASE_ID = "relay";
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final MongoTemplate mongoTemplate;
+    private final KafkaProducerService kafkaProducerService;
+    private final String instanceId;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration sendTimeout;
+    private final Duration leaseDuration;
+    private final Duration retention;
+    
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       MongoTemplate mongoTemplate,
+                       KafkaProducerService kafkaProducerService,
+                       InstanceInfo instanceInfo,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.outbox.batch-size:500}") int batchSize,
+                       @Value("${app.outbox.max-batches-per-run:20}") int maxBatchesPerRun,
+                       @Value("${app.outbox.send-timeout:PT10S}") Duration sendTimeout,
+                       @Value("${app.outbox.lease:PT30S}") Duration leaseDuration,
+                       @Value("${app.outbox.retention:P7D}") Duration retention) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.kafkaProducerService = kafkaProducerService;
+        this.instanceId = instanceInfo.getInstanceId();
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.sendTimeout = sendTimeout;
+        this.leaseDuration = leaseDuration;
+        this.retention = retention;
+        
+        this.publishedCounter = meterRegistry.counter("shipments.outbox.published");
+        this.failedCounter = meterRegistry.counter("shipments.outbox.failed");
+        Gauge.builder("shipments.outbox.pending", pendingEvents, AtomicLong::get)
+            .description("Outbox events not yet published to Kafka")
+            .register(meterRegistry);
+        Gauge.builder("shipments.outbox.lag", lagMillis, lag -> lag.get() / 1000.0)
+            .description("Age of the oldest unpublished outbox event")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        mongoTemplate.indexOps(OutboxEvent.class)
+            .ensureIndex(new Index().on("status", Sort.Direction.ASC).on("_id", Sort.Direction.ASC));
+        mongoTemplate.indexOps(OutboxEvent.class)
+            .ensureIndex(new Index().on("createdAt", Sort.Direction.ASC));
+        // Published events expire after the retention window, which is also the replay window
+        mongoTemplate.indexOps(OutboxEvent.class)
+            .ensureIndex(new Index().on("publishedAt", Sort.Direction.ASC).expire(retention));
+    }
+    
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:PT0.2S}")
+    public void relay() {
+        try {
+            // Only one instance drains the outbox at a time so events keep their order
+            if (!acquireLease()) {
+                return;
+            }
+            
+            for (int run = 0; run < maxBatchesPerRun; run++) {
+                List<OutboxEvent> batch = outboxEventRepository.findByStatusOrderByIdAsc(
+                    OutboxEvent.Status.PENDING, PageRequest.of(0, batchSize));
+                updateLag(batch);
+                
+                if (batch.isEmpty()) {
+                    break;
+                }
+                
+                int published = publish(batch);
+                if (published < batch.size() || batch.size() < batchSize) {
+                    break;
+                }
+            }
+            
+            pendingEvents.set(outboxEventRepository.countByStatus(OutboxEvent.Status.PENDING));
+        } catch (Exception e) {
+            logger.error("Outbox relay run failed: {}", e.getMessage(), e);
+        }
+    }
+    
+    private int publish(List<OutboxEvent> batch) {
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            sends.add(kafkaProducerService.publish(event.getEvent(), event.getOrigin()));
+        }
+        kafkaProducerService.flush();
+        
+        // Only the prefix up to the first failure is marked, so a retry never overtakes earlier events
+        List<String> publishedIds = new ArrayList<>(batch.size());
+        OutboxEvent failed = null;
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                sends.get(i).get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                publishedIds.add(batch.get(i).getId());
+            } catch (Exception e) {
+                failed = batch.get(i);
+                logger.warn("Outbox event {} could not be published: {}", failed.getId(), e.getMessage());
+                break;
+            }
+        }
+        
+        if (!publishedIds.isEmpty()) {
+            mongoTemplate.updateMulti(
+                Query.query(where("_id").in(publishedIds)),
+                new Update().set("status", OutboxEvent.Status.PUBLISHED).set("publishedAt", LocalDateTime.now()),
+                OutboxEvent.class);
+            publishedCounter.increment(publishedIds.size());
+        }
+        
+        if (failed != null) {
+            mongoTemplate.updateFirst(
+                Query.query(where("_id").is(failed.getId())),
+                new Update().inc("attempts", 1),
+                OutboxEvent.class);
+            failedCounter.increment();
+        }
+        
+        return publishedIds.size();
+    }
+    
+    private void updateLag(List<OutboxEvent> batch) {
+        if (batch.isEmpty()) {
+            lagMillis.set(0);
+        } else {
+            LocalDateTime oldest = batch.get(0).getCreatedAt();
+            lagMillis.set(Math.max(0, ChronoUnit.MILLIS.between(oldest, LocalDateTime.now())));
+        }
+    }
+    
+    private boolean acquireLease() {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = Query.query(where("_id").is(LEASE_ID)
+            .orOperator(where("owner").is(instanceId), where("expiresAt").lt(now)));
+        Update update = new Update().set("owner", instanceId).set("expiresAt", now.plus(leaseDuration));
+        
+        try {
+            mongoTemplate.upsert(query, update, LEASE_COLLECTION);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // Another instance holds an unexpired lease
+            return false;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.deliverytracker.service;
+
+import com.deliverytracker.config.InstanceInfo;
+import com.deliverytracker.event.ShipmentEvent;
+import com.deliverytracker.model.OutboxEvent;
+import com.deliverytracker.repository.OutboxEventRepository;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@Service
+public class OutboxService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OutboxService.class);
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final MongoTemplate mongoTemplate;
+    private final String instanceId;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    public OutboxService(OutboxEventRepository outboxEventRepository, MongoTemplate mongoTemplate,
+                         InstanceInfo instanceInfo, ObjectProvider<MongoTransactionManager> transactionManager) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.instanceId = instanceInfo.getInstanceId();
+        MongoTransactionManager manager = transactionManager.getIfAvailable();
+        this.transactionTemplate = manager != null ? new TransactionTemplate(manager) : null;
+    }
+    
+    // Runs the shipment write and its outbox insert in one transaction when app.outbox.transactional is on
+    // (requires a replica set). Otherwise they are two writes, and a failure or crash between them loses the event.
+    public <T> T writeAtomically(Supplier<T> write) {
+        if (transactionTemplate == null) {
+            return write.get();
+        }
+        return transactionTemplate.execute(status -> write.get());
+    }
+    
+    public boolean isTransactional() {
+        return transactionTemplate != null;
+    }
+    
+    public void record(ShipmentEvent event) {
+        outboxEventRepository.insert(new OutboxEvent(event, instanceId));
+    }
+    
+    public void recordAll(List<ShipmentEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        outboxEventRepository.insert(events.stream().map(event -> new OutboxEvent(event, instanceId)).toList());
+    }
+    
+    public long replayFrom(String eventId) {
+        return requeue(where("_id").gte(new ObjectId(eventId)));
+    }
+    
+    public long replayFrom(LocalDateTime from) {
+        return requeue(where("createdAt").gte(from));
+    }
+    
+    // Published events are kept until the retention TTL expires, so replay is bounded by app.outbox.retention
+    private long requeue(Criteria position) {
+        Query query = Query.query(position.and("status").is(OutboxEvent.Status.PUBLISHED));
+        Update update = new Update()
+            .set("status", OutboxEvent.Status.PENDING)
+            .unset("publishedAt");
+        long requeued = mongoTemplate.updateMulti(query, update, OutboxEvent.class).getModifiedCount();
+        logger.info("Re-queued {} outbox events for replay", requeued);
+        return requeued;
+    }
+}
@@ -0,0 +1,395 @@
+package com.deliverytracker.service;
+
+import com.deliverytracker.dto.ShipmentUpdateRequest;
+import com.deliverytracker.event.ShipmentEvent;
+import com.deliverytracker.model.Shipment;
+import com.deliverytracker.model.ShipmentStatus;
+import com.deliverytracker.repository.ShipmentRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+// Keeps every open shipment's estimatedDelivery in a deadline queue and marks it overdue the moment the
+// deadline passes, so the overdue set is served from memory instead of re-queried. State is rebuilt by
+// streaming open shipments at startup and then kept current from shipment events.
+@Component
+public class OverdueShipmentMonitor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OverdueShipmentMonitor.class);
+    
+    private final ShipmentRepository shipmentRepository;
+    private final MongoTemplate mongoTemplate;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<ShipmentService> shipmentService;
+    private final boolean enabled;
+    private final boolean autoDelay;
+    private final Duration announceRetry;
+    private final boolean virtualThreads;
+    
+    private final Map<String, Tracked> tracked = new ConcurrentHashMap<>();
+    private final Map<String, Tracked> overdue = new ConcurrentHashMap<>();
+    
+    // When recently finished or deleted shipments were last changed, so a late event cannot bring them back
+    private final Cache<String, LocalDateTime> retired = Caffeine.newBuilder()
+        .maximumSize(100_000)
+        .expireAfterWrite(Duration.ofHours(1))
+        .build();
+    
+    // Entries are never removed eagerly; a popped deadline that no longer matches its shipment is skipped
+    private final PriorityQueue<Deadline> deadlines = new PriorityQueue<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition deadlinesChanged = lock.newCondition();
+    
+    // Shipments changed by events while the rebuild streams; their event state is newer than the stream's
+    private final Set<String> touchedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+    private volatile boolean running = true;
+    private Thread worker;
+    
+    private final Counter detectedCounter;
+    private final Counter autoDelayedCounter;
+    private final Timer detectionDelay;
+    
+    @Autowired
+    public OverdueShipmentMonitor(ShipmentRepository shipmentRepository,
+                                  MongoTemplate mongoTemplate,
+                                  OutboxService outboxService,
+                                  ApplicationEventPublisher eventPublisher,
+                                  ObjectProvider<ShipmentService> shipmentService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.overdue.enabled:true}") boolean enabled,
+                                  @Value("${app.overdue.auto-delay:false}") boolean autoDelay,
+                                  @Value("${app.overdue.announce-retry:PT30S}") Duration announceRetry,
+                                  @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.shipmentRepository = shipmentRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.outboxService = outboxService;
+        this.eventPublisher = eventPublisher;
+        this.shipmentService = shipmentService;
+        this.enabled = enabled;
+        this.autoDelay = autoDelay;
+        this.announceRetry = announceRetry;
+        this.virtualThreads = virtualThreads;
+        
+        this.detectedCounter = meterRegistry.counter("shipments.overdue.detected");
+        this.autoDelayedCounter = meterRegistry.counter("shipments.overdue.auto-delayed");
+        this.detectionDelay = Timer.builder("shipments.overdue.detection.delay")
+            .description("Time between a shipment's estimated delivery and it being flagged overdue")
+            .register(meterRegistry);
+        Gauge.builder("shipments.overdue.tracked", tracked, Map::size)
+            .description("Open shipments whose deadline is being watched")
+            .register(meterRegistry);
+        Gauge.builder("shipments.overdue.current", overdue, Map::size)
+            .description("Open shipments past their estimated delivery")
+            .register(meterRegistry);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        Thread.Builder builder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        worker = builder.name("overdue-monitor").start(this::run);
+    }
+    
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    public List<String> getOverdueIds() {
+        return new ArrayList<>(overdue.keySet());
+    }
+    
+    public int getOverdueCount() {
+        return overdue.size();
+    }
+    
+    @EventListener
+    public void onShipmentEvent(ShipmentEvent event) {
+        if (!enabled || event.getShipmentId() == null) {
+            return;
+        }
+        
+        switch (event.getType()) {
+            case SHIPMENT_CREATED, SHIPMENT_STATUS_UPDATED -> {
+                // Events relayed from other instances can arrive after a newer change to the same shipment
+                if (isOutdated(event.getShipmentId(), event.getTimestamp())) {
+                    return;
+                }
+                if (event.getNewStatus() == null || event.getNewStatus().isTerminal()) {
+                    untrack(event.getShipmentId(), event.getTimestamp());
+                } else {
+                    track(new Tracked(event.getShipmentId(), event.getTrackingNumber(), event.getOrigin(),
+                        event.getDestination(), event.getNewStatus(), event.getEstimatedDelivery(),
+                        event.getTimestamp()));
+                }
+            }
+            case SHIPMENT_DELETED -> untrack(event.getShipmentId(), event.getTimestamp());
+            default -> {
+                return;
+            }
+        }
+        if (!ready) {
+            touchedDuringRebuild.add(event.getShipmentId());
+        }
+    }
+    
+    private void run() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // Without a complete picture the service falls back to querying Mongo
+            logger.error("Overdue monitor rebuild failed, overdue lookups will query Mongo: {}", e.getMessage(), e);
+            return;
+        }
+        
+        while (running) {
+            List<Deadline> due;
+            try {
+                due = awaitDue();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            // One failing deadline must not drop the others already taken off the queue
+            for (Deadline deadline : due) {
+                try {
+                    fire(deadline);
+                } catch (RuntimeException e) {
+                    logger.error("Overdue monitor failed to process shipment {}: {}", deadline.id(), e.getMessage(), e);
+                }
+            }
+        }
+    }
+    
+    private void rebuild() {
+        long started = System.nanoTime();
+        Query query = Query.query(where("status").in(ShipmentStatus.activeStatuses())
+            .and("estimatedDelivery").ne(null)).cursorBatchSize(1000);
+        query.fields().include("trackingNumber", "origin", "destination", "status", "estimatedDelivery", "updatedAt");
+        
+        long loaded = 0;
+        try (Stream<Shipment> shipments = mongoTemplate.stream(query, Shipment.class)) {
+            for (Shipment shipment : (Iterable<Shipment>) shipments::iterator) {
+                if (touchedDuringRebuild.contains(shipment.getId())) {
+                    continue;
+                }
+                track(new Tracked(shipment.getId(), shipment.getTrackingNumber(), shipment.getOrigin(),
+                    shipment.getDestination(), shipment.getStatus(), shipment.getEstimatedDelivery(),
+                    shipment.getUpdatedAt()));
+                loaded++;
+            }
+        }
+        
+        ready = true;
+        touchedDuringRebuild.clear();
+        logger.info("Overdue monitor tracking {} open shipments, rebuilt in {} ms",
+            loaded, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+    
+    private void track(Tracked shipment) {
+        if (shipment.estimatedDelivery() == null) {
+            untrack(shipment.id(), shipment.changedAt());
+            return;
+        }
+        
+        Tracked previous = tracked.put(shipment.id(), shipment);
+        if (overdue.containsKey(shipment.id())) {
+            if (previous != null && previous.deadline() == shipment.deadline()) {
+                overdue.replace(shipment.id(), shipment);
+                return;
+            }
+            overdue.remove(shipment.id());
+        }
+        // A status change keeps the deadline, and the queued entry for it is still valid
+        if (previous == null || previous.deadline() != shipment.deadline()) {
+            schedule(new Deadline(shipment.deadline(), shipment.id(), false));
+        }
+    }
+    
+    private void untrack(String id, LocalDateTime changedAt) {
+        tracked.remove(id);
+        overdue.remove(id);
+        retired.put(id, changedAt != null ? changedAt : LocalDateTime.now());
+    }
+    
+    private boolean isOutdated(String id, LocalDateTime changedAt) {
+        if (changedAt == null) {
+            return false;
+        }
+        Tracked current = tracked.get(id);
+        LocalDateTime last = current != null ? current.changedAt() : retired.getIfPresent(id);
+        return last != null && changedAt.isBefore(last);
+    }
+    
+    private void schedule(Deadline deadline) {
+        lock.lock();
+        try {
+            deadlines.add(deadline);
+            // Only an earlier head changes how long the worker has to sleep
+            if (deadlines.peek() == deadline) {
+                deadlinesChanged.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // Sleeps until the earliest deadline passes (or an earlier one is scheduled) and returns everything due
+    private List<Deadline> awaitDue() throws InterruptedException {
+        lock.lock();
+        try {
+            while (running) {
+                Deadline head = deadlines.peek();
+                if (head == null) {
+                    deadlinesChanged.await();
+                    continue;
+                }
+                long waitMillis = head.at() - System.currentTimeMillis();
+                if (waitMillis > 0) {
+                    deadlinesChanged.await(waitMillis, TimeUnit.MILLISECONDS);
+                    continue;
+                }
+                
+                List<Deadline> due = new ArrayList<>();
+                long now = System.currentTimeMillis();
+                while (!deadlines.isEmpty() && deadlines.peek().at() <= now) {
+                    due.add(deadlines.poll());
+                }
+                return due;
+            }
+            return List.of();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void fire(Deadline deadline) {
+        if (deadline.retry()) {
+            // Still overdue means no newer event replaced the deadline the announcement was for
+            Tracked shipment = overdue.get(deadline.id());
+            if (shipment != null) {
+                announce(shipment);
+            }
+            return;
+        }
+        if (overdue.containsKey(deadline.id())) {
+            return;
+        }
+        // Checked inside the insert: untrack removes from tracked before overdue, so a shipment finished or
+        // deleted concurrently is either not inserted here or removed again once the insert completes
+        Tracked shipment = overdue.computeIfAbsent(deadline.id(), id -> {
+            Tracked current = tracked.get(id);
+            return current != null && current.deadline() == deadline.at() ? current : null;
+        });
+        if (shipment == null) {
+            return;
+        }
+        
+        detectedCounter.increment();
+        detectionDelay.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - deadline.at())));
+        announce(shipment);
+    }
+    
+    private void announce(Tracked shipment) {
+        // Every instance detects the deadline; the conditional write lets exactly one of them announce it. The
+        // flag and the outbox row are written together, so a failed announcement can be retried.
+        ShipmentEvent event = ShipmentEvent.overdue(shipment.toShipment(), LocalDateTime.now());
+        boolean announced;
+        try {
+            announced = outboxService.writeAtomically(() -> {
+                if (!shipmentRepository.markOverdueNotified(shipment.id(), shipment.estimatedDelivery())) {
+                    return false;
+                }
+                outboxService.record(event);
+                return true;
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Could not announce overdue shipment {}, retrying in {}: {}",
+                shipment.id(), announceRetry, e.getMessage());
+            schedule(new Deadline(System.currentTimeMillis() + announceRetry.toMillis(), shipment.id(), true));
+            return;
+        }
+        if (!announced) {
+            return;
+        }
+        eventPublisher.publishEvent(event);
+        
+        if (autoDelay && shipment.status().canTransitionTo(ShipmentStatus.DELAYED)) {
+            try {
+                shipmentService.getObject().updateShipmentStatus(shipment.id(),
+                    new ShipmentUpdateRequest(ShipmentStatus.DELAYED));
+                autoDelayedCounter.increment();
+            } catch (RuntimeException e) {
+                // The shipment moved on concurrently; its own event will update the tracked state
+                logger.debug("Could not auto-delay overdue shipment {}: {}", shipment.id(), e.getMessage());
+            }
+        }
+    }
+    
+    // A retry re-announces a shipment already detected as overdue
+    private record Deadline(long at, String id, boolean retry) implements Comparable<Deadline> {
+        
+        @Override
+        public int compareTo(Deadline other) {
+            return Long.compare(at, other.at);
+        }
+    }
+    
+    private record Tracked(String id, String trackingNumber, String origin, String destination,
+                           ShipmentStatus status, LocalDateTime estimatedDelivery, LocalDateTime changedAt) {
+        
+        long deadline() {
+            return estimatedDelivery.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+        
+        Shipment toShipment() {
+            Shipment shipment = new Shipment(origin, destination, status);
+            shipment.setId(id);
+            shipment.setTrackingNumber(trackingNumber);
+            shipment.setEstimatedDelivery(estimatedDelivery);
+            return shipment;
+        }
+    }
+}
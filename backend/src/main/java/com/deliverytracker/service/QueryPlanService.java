@@ -0,0 +1,227 @@
+package com.deliverytracker.service;
+
+import com.deliverytracker.dto.QueryPlanReport;
+import com.deliverytracker.model.Shipment;
+import com.deliverytracker.model.ShipmentStatus;
+import com.deliverytracker.repository.ShipmentCursor;
+import com.deliverytracker.repository.ShipmentRepository;
+import com.deliverytracker.repository.ShipmentRepositoryCustomImpl;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.RelaxedTypeBasedAggregationOperationContext;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.util.json.ParameterBindingDocumentCodec;
+import org.springframework.stereotype.Service;
+
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+// Explains each shipment query against the live collection. Probes are built from the same query factories
+// and @Query/@Aggregation definitions the repository and services run, so they cannot drift from them.
+@Service
+public class QueryPlanService {
+    
+    private final MongoTemplate mongoTemplate;
+    private final QueryMapper queryMapper;
+    private final MongoPersistentEntity<?> shipmentEntity;
+    private final int searchMaxCandidates;
+    private final ParameterBindingDocumentCodec codec = new ParameterBindingDocumentCodec();
+    
+    @Autowired
+    public QueryPlanService(MongoTemplate mongoTemplate,
+                            @Value("${app.search.max-candidates:1000}") int searchMaxCandidates) {
+        this.mongoTemplate = mongoTemplate;
+        this.queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        this.shipmentEntity = mongoTemplate.getConverter().getMappingContext()
+            .getRequiredPersistentEntity(Shipment.class);
+        this.searchMaxCandidates = searchMaxCandidates;
+    }
+    
+    public List<QueryPlanReport> explainRepositoryQueries() {
+        List<QueryPlanReport> reports = new ArrayList<>();
+        for (Map.Entry<String, Document> probe : probes().entrySet()) {
+            Document explain = mongoTemplate.getDb().runCommand(
+                new Document("explain", probe.getValue()).append("verbosity", "executionStats"));
+            reports.add(toReport(probe.getKey(), explain));
+        }
+        return reports;
+    }
+    
+    private Map<String, Document> probes() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime monthAgo = now.minusDays(30);
+        List<ShipmentStatus> active = ShipmentStatus.activeStatuses();
+        ShipmentStatus status = ShipmentStatus.IN_TRANSIT;
+        // A cursor into the middle of the collection, so slices probe the keyset branch rather than the first page
+        ShipmentCursor after = new ShipmentCursor(monthAgo, new ObjectId().toHexString());
+        
+        Map<String, Document> probes = new LinkedHashMap<>();
+        // Tracking and the tracking timeline share this lookup
+        probes.put("findByTrackingNumber", find(ShipmentRepositoryCustomImpl.trackingNumberQuery("DT00000000000000")));
+        // Derived queries: the shape Spring Data derives from the method name
+        probes.put("findByStatus", find(Query.query(where("status").is(status))));
+        probes.put("findByStatusIn", find(Query.query(where("status").in(active))
+            .with(PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt")))));
+        probes.put("searchByLocation", aggregate(ShipmentRepositoryCustomImpl.searchAggregation(
+            "new york", PageRequest.of(0, 20), searchMaxCandidates)));
+        probes.put("findByDateRange", annotated("findByDateRange", monthAgo, now));
+        probes.put("findOverdueShipments", annotated("findOverdueShipments", now, active));
+        probes.put("findSlice", find(ShipmentRepositoryCustomImpl.sliceQuery(new Criteria(), after, 21)));
+        probes.put("findSlice(status)", find(ShipmentRepositoryCustomImpl.sliceQuery(
+            where("status").is(status), after, 21)));
+        probes.put("findSlice(overdue)", find(ShipmentRepositoryCustomImpl.sliceQuery(
+            ShipmentRepositoryCustomImpl.overdueCriteria(now), after, 21)));
+        probes.put("export", find(ShipmentExportService.exportQuery(status, monthAgo, now)));
+        probes.put("countByStatus", annotated("countByStatus", status));
+        probes.put("countOverdueShipments", annotated("countOverdueShipments", now, active));
+        probes.put("countGroupedByStatus", annotated("countGroupedByStatus"));
+        probes.put("countCreatedPerDaySince", annotated("countCreatedPerDaySince",
+            monthAgo, ZoneId.systemDefault().getId()));
+        return probes;
+    }
+    
+    private Document find(Query query) {
+        Document command = new Document("find", collection())
+            .append("filter", queryMapper.getMappedObject(query.getQueryObject(), shipmentEntity));
+        if (!query.getSortObject().isEmpty()) {
+            command.append("sort", queryMapper.getMappedSort(query.getSortObject(), shipmentEntity));
+        }
+        if (query.isLimited()) {
+            command.append("limit", query.getLimit());
+        }
+        return command;
+    }
+    
+    // Rendered the way MongoTemplate renders typed aggregations, which lets stages refer to unmapped fields
+    private Document aggregate(Aggregation aggregation) {
+        List<Document> pipeline = aggregation.toPipeline(new RelaxedTypeBasedAggregationOperationContext(
+            Shipment.class, mongoTemplate.getConverter().getMappingContext(), queryMapper));
+        return aggregate(pipeline);
+    }
+    
+    private Document aggregate(List<Document> pipeline) {
+        return new Document("aggregate", collection()).append("pipeline", pipeline).append("cursor", new Document());
+    }
+    
+    // Binds the arguments into the ShipmentRepository method's own @Query or @Aggregation definition
+    private Document annotated(String methodName, Object... arguments) {
+        Method method = Arrays.stream(ShipmentRepository.class.getMethods())
+            .filter(candidate -> candidate.getName().equals(methodName))
+            .findFirst()
+            .orElseThrow(() -> new IllegalStateException("No repository method " + methodName));
+        Object[] values = Arrays.stream(arguments).map(mongoTemplate.getConverter()::convertToMongoType).toArray();
+        
+        // Merged so that aliases such as @Aggregation's value/pipeline resolve; both annotations share their simple
+        // names with the query and aggregation builders imported above
+        org.springframework.data.mongodb.repository.Query query = AnnotatedElementUtils
+            .findMergedAnnotation(method, org.springframework.data.mongodb.repository.Query.class);
+        if (query != null) {
+            Document filter = codec.decode(query.value(), values);
+            return query.count()
+                ? new Document("count", collection()).append("query", filter)
+                : new Document("find", collection()).append("filter", filter);
+        }
+        org.springframework.data.mongodb.repository.Aggregation aggregation = AnnotatedElementUtils
+            .findMergedAnnotation(method, org.springframework.data.mongodb.repository.Aggregation.class);
+        if (aggregation != null) {
+            return aggregate(Arrays.stream(aggregation.pipeline()).map(stage -> codec.decode(stage, values)).toList());
+        }
+        throw new IllegalStateException(methodName + " has no @Query or @Aggregation");
+    }
+    
+    private String collection() {
+        return shipmentEntity.getCollection();
+    }
+    
+    private static QueryPlanReport toReport(String name, Document explain) {
+        Set<String> stages = new LinkedHashSet<>();
+        Set<String> indexes = new LinkedHashSet<>();
+        Object winningPlan = findFirst(explain, "winningPlan");
+        collectPlan(winningPlan, stages, indexes);
+        
+        QueryPlanReport report = new QueryPlanReport();
+        report.setQuery(name);
+        report.setStages(new ArrayList<>(stages));
+        report.setIndexes(new ArrayList<>(indexes));
+        report.setCollectionScan(stages.contains("COLLSCAN"));
+        
+        if (findFirst(explain, "executionStats") instanceof Document stats) {
+            report.setReturned(number(stats.get("nReturned")));
+            report.setKeysExamined(number(stats.get("totalKeysExamined")));
+            report.setDocsExamined(number(stats.get("totalDocsExamined")));
+            report.setExecutionTimeMillis(number(stats.get("executionTimeMillis")));
+        }
+        // Covered: answered from index keys alone, without loading any documents
+        report.setCovered(!stages.isEmpty() && !report.isCollectionScan() && !stages.contains("FETCH")
+            && report.getDocsExamined() == 0);
+        return report;
+    }
+    
+    // Explain output nests differently for find, count and aggregate, so search for the key at any depth
+    private static Object findFirst(Object node, String key) {
+        if (node instanceof Document document) {
+            if (document.containsKey(key)) {
+                return document.get(key);
+            }
+            for (Object child : document.values()) {
+                Object found = findFirst(child, key);
+                if (found != null) {
+                    return found;
+                }
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object child : list) {
+                Object found = findFirst(child, key);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+    
+    private static void collectPlan(Object node, Set<String> stages, Set<String> indexes) {
+        if (node instanceof Document document) {
+            if (document.get("stage") instanceof String stage) {
+                stages.add(stage);
+            }
+            if (document.get("indexName") instanceof String index) {
+                indexes.add(index);
+            }
+            for (Map.Entry<String, Object> child : document.entrySet()) {
+                // The slot-based engine's plan duplicates queryPlan in a form that is not meant to be read
+                if (!"slotBasedPlan".equals(child.getKey())) {
+                    collectPlan(child.getValue(), stages, indexes);
+                }
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object child : list) {
+                collectPlan(child, stages, indexes);
+            }
+        }
+    }
+    
+    private static long number(Object value) {
+        return value instanceof Number n ? n.longValue() : 0;
+    }
+}
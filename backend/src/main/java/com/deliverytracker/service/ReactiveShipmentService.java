@@ -0,0 +1,241 @@
+package com.deliverytracker.service;
+
+import com.deliverytracker.cache.ShipmentTrackingCache;
+import com.deliverytracker.config.InstanceInfo;
+import com.deliverytracker.dto.ShipmentCreateRequest;
+import com.deliverytracker.dto.ShipmentStatsResponse;
+import com.deliverytracker.dto.ShipmentTimeline;
+import com.deliverytracker.dto.ShipmentUpdateRequest;
+import com.deliverytracker.event.ShipmentEvent;
+import com.deliverytracker.exception.BusinessException;
+import com.deliverytracker.exception.StatusConflictException;
+import com.deliverytracker.model.OutboxEvent;
+import com.deliverytracker.model.Shipment;
+import com.deliverytracker.model.ShipmentArchiveEntry;
+import com.deliverytracker.model.ShipmentStatus;
+import com.deliverytracker.model.StatusHistoryEntry;
+import com.deliverytracker.repository.ReactiveShipmentRepository;
+import com.deliverytracker.repository.ShipmentRepositoryCustomImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.ReactiveMongoTransactionManager;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+// Non-blocking counterpart of ShipmentService for the reactive profile. Writes go through the same outbox
+// collection, so the relay, Kafka publishing and the in-process listeners behave exactly as on the servlet stack.
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveShipmentService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveShipmentService.class);
+    
+    private final ReactiveShipmentRepository shipmentRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ShipmentTrackingCache trackingCache;
+    private final ShipmentStatisticsService statisticsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OverdueShipmentMonitor overdueMonitor;
+    private final TransactionalOperator transactionalOperator;
+    private final TrackingNumbers trackingNumbers;
+    private final TrackingNumberFilter trackingFilter;
+    private final String instanceId;
+    
+    @Autowired
+    public ReactiveShipmentService(ReactiveShipmentRepository shipmentRepository, ReactiveMongoTemplate mongoTemplate,
+                                   ShipmentTrackingCache trackingCache, ShipmentStatisticsService statisticsService,
+                                   ApplicationEventPublisher eventPublisher, OverdueShipmentMonitor overdueMonitor,
+                                   ObjectProvider<ReactiveMongoTransactionManager> transactionManager,
+                                   TrackingNumbers trackingNumbers, TrackingNumberFilter trackingFilter,
+                                   InstanceInfo instanceInfo) {
+        this.shipmentRepository = shipmentRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.trackingCache = trackingCache;
+        this.statisticsService = statisticsService;
+        this.eventPublisher = eventPublisher;
+        this.overdueMonitor = overdueMonitor;
+        ReactiveMongoTransactionManager manager = transactionManager.getIfAvailable();
+        this.transactionalOperator = manager != null ? TransactionalOperator.create(manager) : null;
+        this.trackingNumbers = trackingNumbers;
+        this.trackingFilter = trackingFilter;
+        this.instanceId = instanceInfo.getInstanceId();
+    }
+    
+    public Mono<Shipment> createShipment(ShipmentCreateRequest request) {
+        logger.info("Creating new shipment from {} to {}", request.getOrigin(), request.getDestination());
+        
+        // Auditing is only wired into the blocking template, so the dates are set here
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        // Safe on the event loop: TrackingNodeLease claims and renews node ids on the scheduler, never here
+        Shipment shipment = ShipmentService.buildShipment(request, trackingNumbers.next());
+        shipment.setCreatedAt(now);
+        shipment.setUpdatedAt(now);
+        
+        Mono<ShipmentWrite> write = mongoTemplate.insert(shipment).flatMap(saved -> {
+            ShipmentEvent event = ShipmentEvent.created(saved);
+            return mongoTemplate.insert(new OutboxEvent(event, instanceId)).thenReturn(new ShipmentWrite(saved, event));
+        });
+        
+        return writeAtomically(write).map(result -> {
+            Shipment saved = result.shipment();
+            statisticsService.recordCreated(saved);
+            eventPublisher.publishEvent(result.event());
+            logger.info("Created shipment with ID: {} and tracking number: {}",
+                        saved.getId(), saved.getTrackingNumber());
+            return saved;
+        });
+    }
+    
+    public Mono<Page<Shipment>> getAllShipments(Pageable pageable) {
+        Mono<List<Shipment>> content = mongoTemplate.find(new Query().with(pageable), Shipment.class).collectList();
+        Mono<Long> total = mongoTemplate.count(new Query(), Shipment.class);
+        return Mono.zip(content, total)
+            .map(result -> new PageImpl<>(result.getT1(), pageable, result.getT2()));
+    }
+    
+    public Flux<Shipment> streamAllShipments() {
+        return shipmentRepository.findAll(Sort.by(Sort.Direction.DESC, "createdAt", "_id"));
+    }
+    
+    public Mono<Shipment> getShipmentById(String id) {
+        return shipmentRepository.findById(id);
+    }
+    
+    public Mono<Shipment> getShipmentByTrackingNumber(String trackingNumber) {
+        if (!mayExist(trackingNumber)) {
+            return Mono.empty();
+        }
+        return trackingCache.getIfPresent(trackingNumber)
+            .map(Mono::just)
+            .orElseGet(() -> Mono.defer(() -> {
+                long generation = trackingCache.generation(trackingNumber);
+                return shipmentRepository.findByTrackingNumber(trackingNumber)
+                    .switchIfEmpty(findArchived(trackingNumber, entry ->
+                        Query.query(where("_id").is(entry.getShipmentId()))))
+                    .doOnNext(shipment -> trackingCache.putIfCurrent(shipment, generation));
+            }));
+    }
+    
+    public Mono<ShipmentTimeline> getTimeline(String trackingNumber) {
+        return getShipmentByTrackingNumber(trackingNumber).map(ShipmentTimeline::of);
+    }
+    
+    public Mono<Shipment> updateShipmentStatus(String id, ShipmentUpdateRequest request) {
+        ShipmentStatus newStatus = request.getStatus();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        
+        // Same conditional findAndModify as the blocking repository: matches only legal predecessors
+        Query query = Query.query(where("_id").is(id).and("status").in(newStatus.getLegalPredecessors()));
+        query.fields().exclude("recentHistory");
+        Update update = ShipmentRepositoryCustomImpl.statusUpdate(
+            newStatus, now, List.of(new StatusHistoryEntry(newStatus, now)));
+        
+        Mono<ShipmentWrite> write = mongoTemplate
+            .findAndModify(query, update, FindAndModifyOptions.options().returnNew(false), Shipment.class)
+            .switchIfEmpty(Mono.defer(() -> transitionFailure(id, newStatus)))
+            .flatMap(shipment -> {
+                ShipmentEvent event = ShipmentEvent.statusUpdated(shipment, shipment.getStatus(), newStatus, now);
+                return mongoTemplate.insert(new OutboxEvent(event, instanceId)).thenReturn(new ShipmentWrite(shipment, event));
+            });
+        
+        return writeAtomically(write).map(result -> {
+            Shipment previous = result.shipment();
+            ShipmentStatus currentStatus = previous.getStatus();
+            
+            logger.info("Updated shipment {} status from {} to {}", id, currentStatus, newStatus);
+            
+            trackingCache.invalidate(previous.getTrackingNumber());
+            statisticsService.recordStatusChange(currentStatus, newStatus);
+            statisticsService.recordTransition(currentStatus, newStatus);
+            eventPublisher.publishEvent(result.event());
+            
+            return ShipmentService.copyWithStatus(previous, newStatus, now);
+        });
+    }
+    
+    public Mono<Void> deleteShipment(String id) {
+        return shipmentRepository.findById(id)
+            .switchIfEmpty(Mono.error(() -> new BusinessException("Shipment not found with ID: " + id)))
+            .flatMap(shipment -> {
+                logger.info("Deleting shipment with ID: {}", id);
+                ShipmentEvent event = ShipmentEvent.deleted(shipment);
+                Mono<OutboxEvent> write = shipmentRepository.deleteById(id)
+                    .then(mongoTemplate.insert(new OutboxEvent(event, instanceId)));
+                
+                return writeAtomically(write).doOnSuccess(recorded -> {
+                    trackingCache.invalidate(shipment.getTrackingNumber());
+                    statisticsService.recordDeleted(shipment);
+                    eventPublisher.publishEvent(event);
+                });
+            })
+            .then();
+    }
+    
+    public Flux<Shipment> getShipmentsByStatus(ShipmentStatus status) {
+        return shipmentRepository.findByStatus(status);
+    }
+    
+    public Flux<Shipment> getOverdueShipments() {
+        if (overdueMonitor.isReady()) {
+            // Re-checked against the stored shipments, so an entry the monitor has not dropped yet never shows
+            Query query = Query.query(where("_id").in(overdueMonitor.getOverdueIds())
+                    .and("status").in(ShipmentStatus.activeStatuses())
+                    .and("estimatedDelivery").lt(LocalDateTime.now()))
+                .with(Sort.by("estimatedDelivery"));
+            return mongoTemplate.find(query, Shipment.class);
+        }
+        return shipmentRepository.findOverdueShipments(LocalDateTime.now(), ShipmentStatus.activeStatuses());
+    }
+    
+    public Mono<ShipmentStatsResponse> getShipmentStats() {
+        return Mono.fromSupplier(statisticsService::getStats);
+    }
+    
+    // See OutboxService.writeAtomically; the transactional operator exists only with app.outbox.transactional
+    private <T> Mono<T> writeAtomically(Mono<T> write) {
+        return transactionalOperator != null ? transactionalOperator.transactional(write) : write;
+    }
+    
+    private boolean mayExist(String trackingNumber) {
+        return trackingNumbers.isPlausible(trackingNumber) && trackingFilter.mightExist(trackingNumber);
+    }
+    
+    // Same fallback as ShipmentRepositoryCustomImpl: the archive index says which collection holds the shipment
+    private Mono<Shipment> findArchived(String trackingNumber, Function<ShipmentArchiveEntry, Query> query) {
+        return mongoTemplate.findById(trackingNumber, ShipmentArchiveEntry.class)
+            .flatMap(entry -> mongoTemplate.findOne(query.apply(entry), Shipment.class, entry.getCollection()));
+    }
+    
+    private Mono<Shipment> transitionFailure(String id, ShipmentStatus newStatus) {
+        return shipmentRepository.findById(id)
+            .flatMap(shipment -> {
+                statisticsService.recordRejectedTransition(shipment.getStatus(), newStatus);
+                return Mono.<Shipment>error(new StatusConflictException(String.format(
+                    "Invalid status transition from %s to %s", shipment.getStatus(), newStatus)));
+            })
+            .switchIfEmpty(Mono.error(() -> new BusinessException("Shipment not found with ID: " + id)));
+    }
+    
+    private record ShipmentWrite(Shipment shipment, ShipmentEvent event) {}
+}
@@ -0,0 +1,231 @@
+package com.deliverytracker.service;
+
+import com.deliverytracker.config.InstanceInfo;
+import com.deliverytracker.model.Shipment;
+import com.deliverytracker.model.ShipmentArchiveEntry;
+import com.deliverytracker.model.ShipmentStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+// Moves shipments that reached a terminal status more than min-age ago out of the live collection into one
+// archive collection per month, so the live collection and its indexes only hold shipments that still change.
+// Each batch is copied first, then indexed by tracking number, then deleted from the live collection; a run
+// interrupted in between leaves a shipment in both places, which lookups resolve to the live copy and the next
+// run overwrites. Archived shipments stay reachable by tracking number but drop out of lists and id lookups.
+@Component
+public class ShipmentArchiver {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ShipmentArchiver.class);
+    private static final String LEASE_COLLECTION = "shipment_archiver_lease";
+    private static final String LEASE_ID = "archiver";
+    
+    private final MongoTemplate mongoTemplate;
+    private final String instanceId;
+    private final boolean enabled;
+    private final Duration minAge;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration interval;
+    private final Duration leaseDuration;
+    private final boolean virtualThreads;
+    private final String liveCollection;
+    
+    private volatile boolean running = true;
+    private Thread worker;
+    
+    private final AtomicLong liveCount = new AtomicLong();
+    private final AtomicLong archivedCount = new AtomicLong();
+    private final Counter movedCounter;
+    private final Timer batchTimer;
+    
+    @Autowired
+    public ShipmentArchiver(MongoTemplate mongoTemplate,
+                            InstanceInfo instanceInfo,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.archive.enabled:true}") boolean enabled,
+                            @Value("${app.archive.min-age:P30D}") Duration minAge,
+                            @Value("${app.archive.batch-size:500}") int batchSize,
+                            @Value("${app.archive.max-batches-per-run:20}") int maxBatchesPerRun,
+                            @Value("${app.archive.interval:PT10M}") Duration interval,
+                            @Value("${app.archive.lease:PT15M}") Duration leaseDuration,
+                            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.mongoTemplate = mongoTemplate;
+        this.instanceId = instanceInfo.getInstanceId();
+        this.enabled = enabled;
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.interval = interval;
+        this.leaseDuration = leaseDuration;
+        this.virtualThreads = virtualThreads;
+        this.liveCollection = mongoTemplate.getCollectionName(Shipment.class);
+        
+        this.movedCounter = Counter.builder("shipments.archive.moved")
+            .description("Shipments moved from the live collection to the archive")
+            .register(meterRegistry);
+        this.batchTimer = Timer.builder("shipments.archive.batch")
+            .description("Time to copy, index and remove one batch of archived shipments")
+            .register(meterRegistry);
+        Gauge.builder("shipments.archive.live", liveCount, AtomicLong::get)
+            .description("Shipments in the live collection")
+            .register(meterRegistry);
+        Gauge.builder("shipments.archive.archived", archivedCount, AtomicLong::get)
+            .description("Shipments in the archive collections")
+            .register(meterRegistry);
+    }
+    
+    // Every instance refreshes the size gauges; only the lease holder archives
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread.Builder builder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        worker = builder.name("shipment-archiver").start(this::run);
+    }
+    
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+    
+    private void run() {
+        while (running) {
+            try {
+                if (enabled) {
+                    archive();
+                }
+                liveCount.set(mongoTemplate.estimatedCount(liveCollection));
+                archivedCount.set(mongoTemplate.estimatedCount(ShipmentArchiveEntry.class));
+            } catch (RuntimeException e) {
+                // Nothing is removed from the live collection before it is archived; the next run retries
+                logger.error("Shipment archiving failed: {}", e.getMessage(), e);
+            }
+            
+            try {
+                Thread.sleep(interval.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+    
+    private void archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(minAge);
+        long moved = 0;
+        for (int run = 0; run < maxBatchesPerRun && running; run++) {
+            // Renewed per batch so a long run keeps its lease
+            if (!acquireLease()) {
+                break;
+            }
+            
+            // Served by the terminal_updatedAt partial index
+            Query query = Query.query(where("status").in(ShipmentStatus.terminalStatuses()).and("updatedAt").lt(cutoff))
+                .limit(batchSize);
+            List<Document> batch = mongoTemplate.find(query, Document.class, liveCollection);
+            if (batch.isEmpty()) {
+                break;
+            }
+            
+            long started = System.nanoTime();
+            moved += archiveBatch(batch);
+            batchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        if (moved > 0) {
+            logger.info("Archived {} shipments that finished before {}", moved, cutoff);
+        }
+    }
+    
+    private long archiveBatch(List<Document> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        
+        // Raw documents, so every stored field is carried over unchanged
+        Map<String, List<Document>> byCollection = new HashMap<>();
+        for (Document shipment : batch) {
+            LocalDateTime terminalAt = LocalDateTime.ofInstant(
+                shipment.get("updatedAt", Date.class).toInstant(), ZoneId.systemDefault());
+            byCollection.computeIfAbsent(ShipmentArchiveEntry.collectionFor(terminalAt), c -> new ArrayList<>())
+                .add(shipment);
+        }
+        
+        // Replaced rather than inserted, so re-archiving after an interrupted run is harmless
+        BulkOperations entries = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ShipmentArchiveEntry.class);
+        Map<ShipmentStatus, List<Object>> idsByStatus = new EnumMap<>(ShipmentStatus.class);
+        for (Map.Entry<String, List<Document>> bucket : byCollection.entrySet()) {
+            BulkOperations copies = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, bucket.getKey());
+            for (Document shipment : bucket.getValue()) {
+                Object id = shipment.get("_id");
+                ShipmentStatus status = ShipmentStatus.valueOf(shipment.getString("status"));
+                copies.replaceOne(Query.query(where("_id").is(id)), shipment, FindAndReplaceOptions.options().upsert());
+                entries.upsert(Query.query(where("_id").is(shipment.getString("trackingNumber"))), new Update()
+                    .set("shipmentId", id.toString())
+                    .set("collection", bucket.getKey())
+                    .set("status", status)
+                    .set("archivedAt", now));
+                idsByStatus.computeIfAbsent(status, s -> new ArrayList<>()).add(id);
+            }
+            copies.execute();
+        }
+        entries.execute();
+        
+        // Terminal statuses never change, so the status condition only skips shipments deleted meanwhile
+        long removed = 0;
+        for (Map.Entry<ShipmentStatus, List<Object>> group : idsByStatus.entrySet()) {
+            removed += mongoTemplate.remove(
+                Query.query(where("_id").in(group.getValue()).and("status").is(group.getKey())), liveCollection)
+                .getDeletedCount();
+        }
+        movedCounter.increment(removed);
+        return removed;
+    }
+    
+    private boolean acquireLease() {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = Query.query(where("_id").is(LEASE_ID)
+            .orOperator(where("owner").is(instanceId), where("expiresAt").lt(now)));
+        Update update = new Update().set("owner", instanceId).set("expiresAt", now.plus(leaseDuration));
+        
+        try {
+            mongoTemplate.upsert(query, update, LEASE_COLLECTION);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // Another instance is archiving
+            return false;
+        }
+    }
+}
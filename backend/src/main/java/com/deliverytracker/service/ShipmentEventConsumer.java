@@ -0,0 +1,60 @@
+package com.deliverytracker.service;
+
+import com.deliverytracker.event.ShipmentEvent;
+import com.deliverytracker.event.ShipmentEventCodecs;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Consumer lag per partition is published by Boot's Kafka metrics as kafka.consumer.fetch.manager.records.lag
+@Component
+public class ShipmentEventConsumer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ShipmentEventConsumer.class);
+    
+    private final ShipmentEventCodecs codecs;
+    private final ShipmentReadModelService readModelService;
+    private final Counter undecodableCounter;
+    
+    @Autowired
+    public ShipmentEventConsumer(ShipmentEventCodecs codecs,
+                                 ShipmentReadModelService readModelService,
+                                 MeterRegistry meterRegistry) {
+        this.codecs = codecs;
+        this.readModelService = readModelService;
+        this.undecodableCounter = meterRegistry.counter("shipments.read-model.undecodable");
+    }
+    
+    @KafkaListener(
+        id = "shipment-read-model",
+        topics = KafkaProducerService.TOPIC_NAME,
+        groupId = "${spring.kafka.consumer.group-id}",
+        concurrency = "${app.read-model.concurrency:3}",
+        batch = "true")
+    public void consume(List<ConsumerRecord<String, byte[]>> records) {
+        List<ShipmentEvent> events = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, byte[]> record : records) {
+            Header codec = record.headers().lastHeader(KafkaProducerService.CODEC_HEADER);
+            try {
+                events.add(codecs.decode(codec != null ? codec.value() : null, record.value()));
+            } catch (RuntimeException e) {
+                // A poison record would otherwise block its partition forever
+                logger.error("Skipping undecodable record {}-{}@{}: {}",
+                    record.topic(), record.partition(), record.offset(), e.getMessage());
+                undecodableCounter.increment();
+            }
+        }
+        
+        // An exception here fails the batch and the container redelivers it from the last committed offset
+        readModelService.apply(events);
+    }
+}
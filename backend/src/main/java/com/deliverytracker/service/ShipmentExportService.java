@@ -0,0 +1,156 @@
+package com.deliverytracker.service;
+
+import com.deliverytracker.dto.ExportFormat;
+import com.deliverytracker.model.Shipment;
+import com.deliverytracker.model.ShipmentStatus;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Streams shipments from a Mongo cursor straight to the response, holding one cursor batch in memory at a time
+@Service
+public class ShipmentExportService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ShipmentExportService.class);
+    private static final String CSV_HEADER =
+        "id,trackingNumber,origin,destination,status,estimatedDelivery,description,createdAt,updatedAt";
+    
+    private final MongoTemplate mongoTemplate;
+    private final ObjectWriter ndjsonWriter;
+    private final ObjectMapper objectMapper;
+    private final int cursorBatchSize;
+    private final Counter exportedRows;
+    
+    @Autowired
+    public ShipmentExportService(MongoTemplate mongoTemplate,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.export.cursor-batch-size:1000}") int cursorBatchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        // Flushing after every document would turn each row into its own network write
+        this.ndjsonWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.cursorBatchSize = cursorBatchSize;
+        this.exportedRows = meterRegistry.counter("shipments.export.rows");
+    }
+    
+    public long export(ExportFormat format, ShipmentStatus status, LocalDateTime from, LocalDateTime to,
+                       OutputStream out) throws IOException {
+        Query query = exportQuery(status, from, to).cursorBatchSize(cursorBatchSize);
+        long rows;
+        try (Stream<Shipment> shipments = mongoTemplate.stream(query, Shipment.class)) {
+            rows = switch (format) {
+                case NDJSON -> writeNdjson(shipments.iterator(), out);
+                case CSV -> writeCsv(shipments.iterator(), out);
+            };
+        }
+        logger.info("Exported {} shipments as {}", rows, format);
+        return rows;
+    }
+    
+    // Shared with QueryPlanService
+    static Query exportQuery(ShipmentStatus status, LocalDateTime from, LocalDateTime to) {
+        Criteria criteria = new Criteria();
+        if (status != null) {
+            criteria.and("status").is(status);
+        }
+        if (from != null || to != null) {
+            Criteria createdAt = criteria.and("createdAt");
+            if (from != null) {
+                createdAt.gte(from);
+            }
+            if (to != null) {
+                createdAt.lt(to);
+            }
+        }
+        
+        // Walks the (status,) createdAt, _id indexes backwards, so the server never sorts in memory
+        return new Query(criteria).with(Sort.by(Sort.Direction.ASC, "createdAt", "_id"));
+    }
+    
+    private long writeNdjson(Iterator<Shipment> shipments, OutputStream out) throws IOException {
+        long rows = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            while (shipments.hasNext()) {
+                ndjsonWriter.writeValue(generator, shipments.next());
+                generator.writeRaw('\n');
+                rows++;
+                if (rows % cursorBatchSize == 0) {
+                    exportedRows.increment(cursorBatchSize);
+                }
+            }
+        }
+        exportedRows.increment(rows % cursorBatchSize);
+        return rows;
+    }
+    
+    private long writeCsv(Iterator<Shipment> shipments, OutputStream out) throws IOException {
+        long rows = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (shipments.hasNext()) {
+            Shipment shipment = shipments.next();
+            writeCsvField(writer, shipment.getId(), true);
+            writeCsvField(writer, shipment.getTrackingNumber(), false);
+            writeCsvField(writer, shipment.getOrigin(), false);
+            writeCsvField(writer, shipment.getDestination(), false);
+            writeCsvField(writer, shipment.getStatus(), false);
+            writeCsvField(writer, shipment.getEstimatedDelivery(), false);
+            writeCsvField(writer, shipment.getDescription(), false);
+            writeCsvField(writer, shipment.getCreatedAt(), false);
+            writeCsvField(writer, shipment.getUpdatedAt(), false);
+            writer.write('\n');
+            rows++;
+            if (rows % cursorBatchSize == 0) {
+                exportedRows.increment(cursorBatchSize);
+            }
+        }
+        writer.flush();
+        exportedRows.increment(rows % cursorBatchSize);
+        return rows;
+    }
+    
+    private static void writeCsvField(Writer writer, Object value, boolean first) throws IOException {
+        if (!first) {
+            writer.write(',');
+        }
+        if (value == null) {
+            return;
+        }
+        
+        String text = value.toString();
+        boolean quote = text.indexOf(',') >= 0 || text.indexOf('"') >= 0
+            || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,66 @@
+package com.deliverytracker.service;
+
+import com.deliverytracker.config.WebSocketConfig;
+import com.deliverytracker.event.ShipmentEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ShipmentNotificationService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ShipmentNotificationService.class);
+    
+    private final SimpMessagingTemplate messagingTemplate;
+    private final AtomicInteger connectedSessions = new AtomicInteger();
+    private final Counter pushedCounter;
+    private final Counter disconnectCounter;
+    
+    @Autowired
+    public ShipmentNotificationService(SimpMessagingTemplate messagingTemplate, MeterRegistry meterRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.pushedCounter = meterRegistry.counter("shipments.websocket.pushed");
+        this.disconnectCounter = meterRegistry.counter("shipments.websocket.disconnects");
+        Gauge.builder("shipments.websocket.sessions", connectedSessions, AtomicInteger::get)
+            .description("Currently connected STOMP sessions")
+            .register(meterRegistry);
+    }
+    
+    // One message per topic; the simple broker fans it out to that topic's subscribers only
+    @EventListener
+    public void onShipmentEvent(ShipmentEvent event) {
+        try {
+            messagingTemplate.convertAndSend(WebSocketConfig.GLOBAL_TOPIC, event);
+            if (event.getTrackingNumber() != null) {
+                messagingTemplate.convertAndSend(WebSocketConfig.TRACKING_TOPIC_PREFIX + event.getTrackingNumber(), event);
+            }
+            pushedCounter.increment();
+        } catch (Exception e) {
+            logger.error("Failed to push shipment event {}: {}", event.getEventId(), e.getMessage(), e);
+        }
+    }
+    
+    @EventListener
+    public void onSessionConnected(SessionConnectedEvent event) {
+        connectedSessions.incrementAndGet();
+    }
+    
+    // Also fired when a slow consumer is closed for exceeding the send time or buffer limit
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        connectedSessions.updateAndGet(count -> Math.max(0, count - 1));
+        disconnectCounter.increment();
+    }
+}
@@ -0,0 +1,374 @@
+package com.deliverytracker.service;
+
+import com.deliverytracker.dto.StatusCount;
+import com.deliverytracker.event.ShipmentEvent;
+import com.deliverytracker.event.ShipmentEventType;
+import com.deliverytracker.model.RouteStats;
+import com.deliverytracker.model.ShipmentStatus;
+import com.deliverytracker.model.ShipmentStatusHistory;
+import com.deliverytracker.model.ShipmentView;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteUpsert;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+// Denormalized read model fed by the shipment-events consumer. Every effect is idempotent per event: views are
+// guarded by event time, history entries are keyed by event id and each counter increment is recorded by event
+// and counter document in shipment_view_applied. An event is recorded as processed only after all effects succeeded, so a batch
+// that failed or was cut short by a crash is redelivered and completed, and redelivered batches and duplicate
+// publishes from the outbox are applied once.
+@Service
+public class ShipmentReadModelService {
+    
+    static final String PROCESSED_EVENTS_COLLECTION = "shipment_view_events";
+    static final String STATUS_COUNTS_COLLECTION = "shipment_view_status_counts";
+    static final String APPLIED_EVENTS_COLLECTION = "shipment_view_applied";
+    private static final int DUPLICATE_KEY = 11000;
+    
+    private final MongoTemplate mongoTemplate;
+    private final OutboxService outboxService;
+    private final Duration dedupRetention;
+    
+    private final Counter appliedCounter;
+    private final Counter duplicateCounter;
+    private final Timer eventAge;
+    
+    @Autowired
+    public ShipmentReadModelService(MongoTemplate mongoTemplate,
+                                    OutboxService outboxService,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.read-model.dedup-retention:P7D}") Duration dedupRetention) {
+        this.mongoTemplate = mongoTemplate;
+        this.outboxService = outboxService;
+        this.dedupRetention = dedupRetention;
+        
+        this.appliedCounter = meterRegistry.counter("shipments.read-model.applied");
+        this.duplicateCounter = meterRegistry.counter("shipments.read-model.duplicates");
+        // End-to-end staleness of the read model: event time on the write side to applied here
+        this.eventAge = Timer.builder("shipments.read-model.event.age")
+            .description("Delay between a shipment event and its projection into the read model")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        mongoTemplate.indexOps(ShipmentView.class)
+            .ensureIndex(new Index().on("trackingNumber", Sort.Direction.ASC));
+        mongoTemplate.indexOps(RouteStats.class)
+            .ensureIndex(new Index().on("total", Sort.Direction.DESC));
+        mongoTemplate.indexOps(ShipmentStatusHistory.class)
+            .ensureIndex(new Index().on("shipmentId", Sort.Direction.ASC).on("changedAt", Sort.Direction.DESC));
+        // Redeliveries older than the retention window are no longer recognised as duplicates
+        mongoTemplate.indexOps(PROCESSED_EVENTS_COLLECTION)
+            .ensureIndex(new Index().on("processedAt", Sort.Direction.ASC).expire(dedupRetention));
+        mongoTemplate.indexOps(APPLIED_EVENTS_COLLECTION)
+            .ensureIndex(new Index().on("appliedAt", Sort.Direction.ASC).expire(dedupRetention));
+    }
+    
+    public void apply(List<ShipmentEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        
+        List<ShipmentEvent> fresh = unprocessed(events);
+        duplicateCounter.increment(events.size() - fresh.size());
+        if (fresh.isEmpty()) {
+            return;
+        }
+        
+        // A failure leaves the batch unrecorded; the redelivered batch skips whatever was already applied
+        applyViews(fresh);
+        applyStatusCounts(fresh);
+        applyRouteStats(fresh);
+        applyStatusHistory(fresh);
+        markProcessed(fresh);
+        
+        appliedCounter.increment(fresh.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (ShipmentEvent event : fresh) {
+            if (event.getTimestamp() != null) {
+                eventAge.record(Duration.between(event.getTimestamp(), now));
+            }
+        }
+    }
+    
+    public List<StatusCount> getStatusCounts() {
+        return mongoTemplate.findAll(StatusCount.class, STATUS_COUNTS_COLLECTION);
+    }
+    
+    public List<RouteStats> getTopRoutes(int limit) {
+        Query query = new Query().with(Sort.by(Sort.Direction.DESC, "total")).limit(limit);
+        return mongoTemplate.find(query, RouteStats.class);
+    }
+    
+    public Optional<ShipmentView> getView(String trackingNumber) {
+        Query query = Query.query(where("trackingNumber").is(trackingNumber).and("deleted").is(false));
+        return Optional.ofNullable(mongoTemplate.findOne(query, ShipmentView.class));
+    }
+    
+    // Drops events already recorded as processed and repeats within the batch
+    private List<ShipmentEvent> unprocessed(List<ShipmentEvent> events) {
+        Map<String, ShipmentEvent> byId = new LinkedHashMap<>();
+        for (ShipmentEvent event : events) {
+            byId.putIfAbsent(event.getEventId(), event);
+        }
+        
+        Query query = Query.query(where("_id").in(byId.keySet()));
+        query.fields().include("_id");
+        for (Document processed : mongoTemplate.find(query, Document.class, PROCESSED_EVENTS_COLLECTION)) {
+            byId.remove(processed.getString("_id"));
+        }
+        return new ArrayList<>(byId.values());
+    }
+    
+    private void markProcessed(List<ShipmentEvent> events) {
+        Date now = new Date();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, PROCESSED_EVENTS_COLLECTION);
+        for (ShipmentEvent event : events) {
+            bulk.insert(new Document("_id", event.getEventId()).append("processedAt", now));
+        }
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            // Recorded meanwhile by a concurrent redelivery, whose effects were guarded the same way
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw e;
+                }
+            }
+        }
+    }
+    
+    private void applyViews(List<ShipmentEvent> events) {
+        // Events for one shipment share a partition, so the last one in the batch is the newest
+        Map<String, ShipmentEvent> latest = new LinkedHashMap<>();
+        for (ShipmentEvent event : events) {
+            switch (event.getType()) {
+                case SHIPMENT_CREATED, SHIPMENT_STATUS_UPDATED, SHIPMENT_DELETED -> latest.put(event.getShipmentId(), event);
+                default -> { }
+            }
+        }
+        if (latest.isEmpty()) {
+            return;
+        }
+        
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, ShipmentView.class);
+        for (ShipmentEvent event : latest.values()) {
+            // The timestamp guard keeps a replayed older event from overwriting newer state
+            Query query = Query.query(where("_id").is(event.getShipmentId())
+                .orOperator(where("lastEventAt").lte(event.getTimestamp()), where("lastEventAt").exists(false)));
+            Update update = new Update()
+                .set("trackingNumber", event.getTrackingNumber())
+                .set("origin", event.getOrigin())
+                .set("destination", event.getDestination())
+                .set("estimatedDelivery", event.getEstimatedDelivery())
+                .set("lastEventId", event.getEventId())
+                .set("lastEventAt", event.getTimestamp());
+            
+            // Deletions leave a tombstone so a late status event cannot resurrect the view
+            if (event.getType() == ShipmentEventType.SHIPMENT_DELETED) {
+                update.set("status", event.getOldStatus()).set("deleted", true);
+            } else {
+                update.set("status", event.getNewStatus()).set("deleted", false);
+            }
+            bulk.upsert(query, update);
+        }
+        
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            // A duplicate key here means the guard failed against a newer view, which is the intent
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw e;
+                }
+            }
+        }
+    }
+    
+    private void applyStatusCounts(List<ShipmentEvent> events) {
+        Map<String, Increments> counts = new LinkedHashMap<>();
+        for (ShipmentEvent event : events) {
+            switch (event.getType()) {
+                case SHIPMENT_CREATED -> count(counts, event.getNewStatus(), event, 1);
+                case SHIPMENT_STATUS_UPDATED -> {
+                    count(counts, event.getOldStatus(), event, -1);
+                    count(counts, event.getNewStatus(), event, 1);
+                }
+                case SHIPMENT_DELETED -> count(counts, event.getOldStatus(), event, -1);
+                default -> { }
+            }
+        }
+        incrementOnce(STATUS_COUNTS_COLLECTION, counts);
+    }
+    
+    private void applyRouteStats(List<ShipmentEvent> events) {
+        Map<String, Increments> routes = new LinkedHashMap<>();
+        for (ShipmentEvent event : events) {
+            Increments route = routes.computeIfAbsent(RouteStats.key(event.getOrigin(), event.getDestination()), key -> {
+                Increments increments = new Increments();
+                increments.onInsert.put("origin", event.getOrigin());
+                increments.onInsert.put("destination", event.getDestination());
+                return increments;
+            });
+            
+            String eventId = event.getEventId();
+            ShipmentStatus oldStatus = event.getOldStatus();
+            ShipmentStatus newStatus = event.getNewStatus();
+            switch (event.getType()) {
+                case SHIPMENT_CREATED -> {
+                    route.add(eventId, "total", 1);
+                    if (newStatus != null && !newStatus.isTerminal()) {
+                        route.add(eventId, "active", 1);
+                    }
+                }
+                case SHIPMENT_STATUS_UPDATED -> {
+                    if (oldStatus != null && !oldStatus.isTerminal() && newStatus != null && newStatus.isTerminal()) {
+                        route.add(eventId, "active", -1);
+                    }
+                    if (newStatus == ShipmentStatus.DELIVERED) {
+                        route.add(eventId, "delivered", 1);
+                    }
+                }
+                case SHIPMENT_DELETED -> {
+                    route.add(eventId, "total", -1);
+                    if (oldStatus != null && !oldStatus.isTerminal()) {
+                        route.add(eventId, "active", -1);
+                    }
+                    if (oldStatus == ShipmentStatus.DELIVERED) {
+                        route.add(eventId, "delivered", -1);
+                    }
+                }
+                default -> { }
+            }
+        }
+        incrementOnce(mongoTemplate.getCollectionName(RouteStats.class), routes);
+    }
+    
+    // Records each (document, event) pair with an upsert first; only pairs that were inserted now, not matched from
+    // an earlier partly applied delivery, are added to the one $inc per document. Both run in one transaction
+    // when app.outbox.transactional is on; otherwise a crash between them loses those increments.
+    private void incrementOnce(String collection, Map<String, Increments> documents) {
+        List<String> keys = new ArrayList<>();
+        List<String> eventIds = new ArrayList<>();
+        for (Map.Entry<String, Increments> document : documents.entrySet()) {
+            for (String eventId : document.getValue().byEvent.keySet()) {
+                keys.add(document.getKey());
+                eventIds.add(eventId);
+            }
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        
+        outboxService.writeAtomically(() -> {
+            Date now = new Date();
+            BulkOperations applied = mongoTemplate.bulkOps(BulkMode.UNORDERED, APPLIED_EVENTS_COLLECTION);
+            for (int i = 0; i < keys.size(); i++) {
+                Document id = new Document("collection", collection).append("key", keys.get(i))
+                    .append("event", eventIds.get(i));
+                applied.upsert(Query.query(where("_id").is(id)), new Update().setOnInsert("appliedAt", now));
+            }
+            
+            Map<String, Map<String, Long>> totals = new LinkedHashMap<>();
+            for (BulkWriteUpsert upsert : applied.execute().getUpserts()) {
+                String key = keys.get(upsert.getIndex());
+                documents.get(key).byEvent.get(eventIds.get(upsert.getIndex())).forEach((field, delta) ->
+                    totals.computeIfAbsent(key, k -> new LinkedHashMap<>()).merge(field, delta, Long::sum));
+            }
+            
+            List<Map.Entry<String, Map<String, Long>>> changed = totals.entrySet().stream()
+                .filter(document -> document.getValue().values().stream().anyMatch(delta -> delta != 0))
+                .toList();
+            if (changed.isEmpty()) {
+                return null;
+            }
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, collection);
+            for (Map.Entry<String, Map<String, Long>> document : changed) {
+                Update update = new Update();
+                document.getValue().forEach(update::inc);
+                documents.get(document.getKey()).onInsert.forEach(update::setOnInsert);
+                bulk.upsert(Query.query(where("_id").is(document.getKey())), update);
+            }
+            bulk.execute();
+            return null;
+        });
+    }
+    
+    // The full history behind Shipment.recentHistory; written here so the status update itself stays one write
+    private void applyStatusHistory(List<ShipmentEvent> events) {
+        List<ShipmentStatusHistory> entries = new ArrayList<>();
+        for (ShipmentEvent event : events) {
+            if (event.getType() == ShipmentEventType.SHIPMENT_CREATED
+                    || event.getType() == ShipmentEventType.SHIPMENT_STATUS_UPDATED) {
+                ShipmentStatusHistory entry = new ShipmentStatusHistory();
+                entry.setEventId(event.getEventId());
+                entry.setShipmentId(event.getShipmentId());
+                entry.setStatus(event.getNewStatus());
+                entry.setPreviousStatus(event.getOldStatus());
+                entry.setChangedAt(event.getTimestamp());
+                entries.add(entry);
+            }
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+        
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, ShipmentStatusHistory.class);
+        bulk.insert(entries);
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            // Entries are keyed by event id, so a duplicate is an event from a batch that failed and was redelivered
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw e;
+                }
+            }
+        }
+    }
+    
+    private static void count(Map<String, Increments> counts, ShipmentStatus status, ShipmentEvent event, long delta) {
+        if (status != null) {
+            counts.computeIfAbsent(status.name(), key -> new Increments()).add(event.getEventId(), "count", delta);
+        }
+    }
+    
+    // What each event adds to one counter document, and the fields set when the document is created
+    private static final class Increments {
+        
+        private final Map<String, Object> onInsert = new LinkedHashMap<>();
+        private final Map<String, Map<String, Long>> byEvent = new LinkedHashMap<>();
+        
+        void add(String eventId, String field, long delta) {
+            byEvent.computeIfAbsent(eventId, id -> new LinkedHashMap<>()).merge(field, delta, Long::sum);
+        }
+    }
+}
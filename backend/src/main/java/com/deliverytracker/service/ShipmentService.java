@@ -1,52 +1,99 @@
 package com.deliverytracker.service;
 
+import com.deliverytracker.cache.ShipmentTrackingCache;
+import com.deliverytracker.dto.BatchItemResult;
+import com.deliverytracker.dto.BatchResponse;
+import com.deliverytracker.dto.CursorPage;
 import com.deliverytracker.dto.ShipmentCreateRequest;
+import com.deliverytracker.dto.ShipmentStatsResponse;
+import com.deliverytracker.dto.ShipmentStatusBatchUpdateRequest;
+import com.deliverytracker.dto.ShipmentTimeline;
 import com.deliverytracker.dto.ShipmentUpdateRequest;
+import com.deliverytracker.event.ShipmentEvent;
 import com.deliverytracker.exception.BusinessException;
+import com.deliverytracker.exception.StatusConflictException;
+import com.deliverytracker.model.LocationNormalizer;
 import com.deliverytracker.model.Shipment;
 import com.deliverytracker.model.ShipmentStatus;
+import com.deliverytracker.model.ShipmentStatusHistory;
+import com.deliverytracker.model.StatusHistoryEntry;
+import com.deliverytracker.repository.ShipmentCursor;
 import com.deliverytracker.repository.ShipmentRepository;
+import com.deliverytracker.repository.ShipmentRepositoryCustomImpl;
+import com.deliverytracker.repository.ShipmentStatusHistoryRepository;
+import io.micrometer.core.annotation.Timed;
+import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
 
+// Every public method is timed as shipments.service{class,method,exception}; see MetricsConfig
 @Service
+@Timed("shipments.service")
 public class ShipmentService {
     
     private static final Logger logger = LoggerFactory.getLogger(ShipmentService.class);
     
     private final ShipmentRepository shipmentRepository;
-    private final KafkaProducerService kafkaProducerService;
+    private final OutboxService outboxService;
+    private final ShipmentTrackingCache trackingCache;
+    private final ShipmentStatisticsService statisticsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OverdueShipmentMonitor overdueMonitor;
+    private final TrackingNumbers trackingNumbers;
+    private final ShipmentStatusHistoryRepository statusHistoryRepository;
+    private final TrackingNumberFilter trackingFilter;
     
     @Autowired
-    public ShipmentService(ShipmentRepository shipmentRepository, KafkaProducerService kafkaProducerService) {
+    public ShipmentService(ShipmentRepository shipmentRepository, OutboxService outboxService,
+                          ShipmentTrackingCache trackingCache, ShipmentStatisticsService statisticsService,
+                          ApplicationEventPublisher eventPublisher, OverdueShipmentMonitor overdueMonitor,
+                          TrackingNumbers trackingNumbers, ShipmentStatusHistoryRepository statusHistoryRepository,
+                          TrackingNumberFilter trackingFilter) {
         this.shipmentRepository = shipmentRepository;
-        this.kafkaProducerService = kafkaProducerService;
+        this.outboxService = outboxService;
+        this.trackingCache = trackingCache;
+        this.statisticsService = statisticsService;
+        this.eventPublisher = eventPublisher;
+        this.overdueMonitor = overdueMonitor;
+        this.trackingNumbers = trackingNumbers;
+        this.statusHistoryRepository = statusHistoryRepository;
+        this.trackingFilter = trackingFilter;
     }
     
     public Shipment createShipment(ShipmentCreateRequest request) {
         logger.info("Creating new shipment from {} to {}", request.getOrigin(), request.getDestination());
         
-        Shipment shipment = new Shipment();
-        shipment.setOrigin(request.getOrigin());
-        shipment.setDestination(request.getDestination());
-        shipment.setDescription(request.getDescription());
-        shipment.setStatus(ShipmentStatus.CREATED);
-        shipment.setTrackingNumber(generateTrackingNumber());
-        shipment.setEstimatedDelivery(request.getEstimatedDelivery() != null ? 
-            request.getEstimatedDelivery() : LocalDateTime.now().plusDays(3));
-        
-        Shipment savedShipment = shipmentRepository.save(shipment);
+        Shipment shipment = buildShipment(request, trackingNumbers.next());
         
-        // Publish event to Kafka
-        kafkaProducerService.publishShipmentEvent(savedShipment, "SHIPMENT_CREATED");
+        // Record event in the outbox alongside the write; the relay publishes it to Kafka
+        ShipmentWrite write = outboxService.writeAtomically(() -> {
+            Shipment saved = shipmentRepository.save(shipment);
+            ShipmentEvent event = ShipmentEvent.created(saved);
+            outboxService.record(event);
+            return new ShipmentWrite(saved, event);
+        });
+        Shipment savedShipment = write.shipment();
+        statisticsService.recordCreated(savedShipment);
+        eventPublisher.publishEvent(write.event());
         
         logger.info("Created shipment with ID: {} and tracking number: {}", 
                     savedShipment.getId(), savedShipment.getTrackingNumber());
@@ -54,6 +101,80 @@ public class ShipmentService {
         return savedShipment;
     }
     
+    public BatchResponse createShipments(List<ShipmentCreateRequest> requests) {
+        logger.info("Creating batch of {} shipments", requests.size());
+        
+        // IDs and audit dates are assigned up front so every item can be reported without a read-back
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        List<Shipment> shipments = new ArrayList<>(requests.size());
+        for (ShipmentCreateRequest request : requests) {
+            Shipment shipment = buildShipment(request, trackingNumbers.next());
+            shipment.setId(new ObjectId().toHexString());
+            shipment.setCreatedAt(now);
+            shipment.setUpdatedAt(now);
+            shipments.add(shipment);
+        }
+        
+        Map<Integer, String> failures = insertWithEvents(shipments);
+        
+        List<BatchItemResult> results = new ArrayList<>(shipments.size());
+        List<Shipment> created = new ArrayList<>(shipments.size());
+        for (int i = 0; i < shipments.size(); i++) {
+            Shipment shipment = shipments.get(i);
+            if (failures.containsKey(i)) {
+                results.add(BatchItemResult.failure(i, null, failures.get(i)));
+            } else {
+                results.add(BatchItemResult.success(i, shipment.getId(), shipment.getTrackingNumber(), shipment.getStatus()));
+                statisticsService.recordCreated(shipment);
+                created.add(shipment);
+            }
+        }
+        
+        created.stream().map(ShipmentEvent::created).forEach(eventPublisher::publishEvent);
+        
+        logger.info("Created {} of {} shipments in batch", created.size(), shipments.size());
+        
+        return new BatchResponse(results);
+    }
+    
+    // Inserts the batch and records outbox events for the inserted shipments in one transaction. A failed item
+    // aborts the whole transaction, so the batch is then rolled back and written again without the items that
+    // failed; each retry drops at least one item. Without transactions the partial write stands as it is.
+    private Map<Integer, String> insertWithEvents(List<Shipment> shipments) {
+        Map<Integer, String> failures = new HashMap<>();
+        while (true) {
+            List<Integer> indexes = new ArrayList<>();
+            for (int i = 0; i < shipments.size(); i++) {
+                if (!failures.containsKey(i)) {
+                    indexes.add(i);
+                }
+            }
+            List<Shipment> attempt = indexes.stream().map(shipments::get).toList();
+            Map<Integer, String> attemptFailures = new HashMap<>();
+            try {
+                outboxService.writeAtomically(() -> {
+                    shipmentRepository.insertAll(attempt)
+                        .forEach((i, message) -> attemptFailures.put(indexes.get(i), message));
+                    if (!attemptFailures.isEmpty() && outboxService.isTransactional()) {
+                        throw new PartialBatchRollback();
+                    }
+                    List<ShipmentEvent> events = new ArrayList<>(attempt.size());
+                    for (int i = 0; i < attempt.size(); i++) {
+                        if (!attemptFailures.containsKey(indexes.get(i))) {
+                            events.add(ShipmentEvent.created(attempt.get(i)));
+                        }
+                    }
+                    outboxService.recordAll(events);
+                    return null;
+                });
+                failures.putAll(attemptFailures);
+                return failures;
+            } catch (PartialBatchRollback e) {
+                failures.putAll(attemptFailures);
+            }
+        }
+    }
+    
     public List<Shipment> getAllShipments() {
         return shipmentRepository.findAll();
     }
@@ -67,43 +188,150 @@ public class ShipmentService {
     }
     
     public Optional<Shipment> getShipmentByTrackingNumber(String trackingNumber) {
-        return shipmentRepository.findByTrackingNumber(trackingNumber);
+        if (!mayExist(trackingNumber)) {
+            return Optional.empty();
+        }
+        return trackingCache.get(trackingNumber, shipmentRepository::findByTrackingNumber);
     }
     
     public Shipment updateShipmentStatus(String id, ShipmentUpdateRequest request) {
-        Shipment shipment = shipmentRepository.findById(id)
-            .orElseThrow(() -> new BusinessException("Shipment not found with ID: " + id));
-        
-        ShipmentStatus currentStatus = shipment.getStatus();
         ShipmentStatus newStatus = request.getStatus();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
         
-        if (!currentStatus.canTransitionTo(newStatus)) {
-            throw new BusinessException(String.format(
-                "Invalid status transition from %s to %s", currentStatus, newStatus));
-        }
+        // Single conditional findAndModify: only matches while the stored status may legally move to newStatus
+        ShipmentWrite write = outboxService.writeAtomically(() -> {
+            Shipment shipment = shipmentRepository.transitionStatus(id, newStatus, now)
+                .orElseThrow(() -> transitionFailure(id, newStatus));
+            ShipmentEvent event = ShipmentEvent.statusUpdated(shipment, shipment.getStatus(), newStatus, now);
+            outboxService.record(event);
+            return new ShipmentWrite(shipment, event);
+        });
+        
+        Shipment previous = write.shipment();
+        ShipmentStatus currentStatus = previous.getStatus();
         
-        logger.info("Updating shipment {} status from {} to {}", 
+        logger.info("Updated shipment {} status from {} to {}", 
                     id, currentStatus, newStatus);
         
-        shipment.setStatus(newStatus);
-        Shipment updatedShipment = shipmentRepository.save(shipment);
+        trackingCache.invalidate(previous.getTrackingNumber());
+        statisticsService.recordStatusChange(currentStatus, newStatus);
+        statisticsService.recordTransition(currentStatus, newStatus);
+        eventPublisher.publishEvent(write.event());
         
-        // Publish event to Kafka
-        kafkaProducerService.publishShipmentEvent(updatedShipment, "SHIPMENT_STATUS_UPDATED");
+        return copyWithStatus(previous, newStatus, now);
+    }
+    
+    public BatchResponse updateShipmentStatuses(List<ShipmentStatusBatchUpdateRequest.Item> updates) {
+        logger.info("Updating status for batch of {} shipments", updates.size());
+        
+        Set<String> ids = new HashSet<>();
+        updates.forEach(update -> ids.add(update.getId()));
+        
+        Map<String, Shipment> shipments = new HashMap<>();
+        shipmentRepository.findAllById(ids).forEach(shipment -> shipments.put(shipment.getId(), shipment));
         
-        return updatedShipment;
+        // Validate every item against the status each shipment will have after the earlier items in the batch
+        Map<String, ShipmentStatus> projected = new HashMap<>();
+        shipments.values().forEach(shipment -> projected.put(shipment.getId(), shipment.getStatus()));
+        Map<String, List<StatusHistoryEntry>> steps = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        
+        BatchItemResult[] results = new BatchItemResult[updates.size()];
+        ShipmentStatus[] fromStatuses = new ShipmentStatus[updates.size()];
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < updates.size(); i++) {
+            ShipmentStatusBatchUpdateRequest.Item update = updates.get(i);
+            ShipmentStatus currentStatus = projected.get(update.getId());
+            
+            if (currentStatus == null) {
+                results[i] = BatchItemResult.failure(i, update.getId(), "Shipment not found with ID: " + update.getId());
+            } else if (!currentStatus.canTransitionTo(update.getStatus())) {
+                statisticsService.recordRejectedTransition(currentStatus, update.getStatus());
+                results[i] = BatchItemResult.failure(i, update.getId(), String.format(
+                    "Invalid status transition from %s to %s", currentStatus, update.getStatus()));
+            } else {
+                fromStatuses[i] = currentStatus;
+                projected.put(update.getId(), update.getStatus());
+                steps.computeIfAbsent(update.getId(), id -> new ArrayList<>())
+                    .add(new StatusHistoryEntry(update.getStatus(), now));
+                accepted.add(i);
+            }
+        }
+        
+        // One conditional write per shipment, from its stored status to its final status
+        List<ShipmentRepository.StatusChange> changes = new ArrayList<>();
+        for (Shipment shipment : shipments.values()) {
+            ShipmentStatus target = projected.get(shipment.getId());
+            if (target != shipment.getStatus()) {
+                changes.add(new ShipmentRepository.StatusChange(
+                    shipment.getId(), shipment.getStatus(), target, steps.get(shipment.getId())));
+            }
+        }
+        
+        // One event per accepted transition, in request order, so chained updates stay visible downstream
+        List<ShipmentEvent> events = new ArrayList<>(accepted.size());
+        Set<String> applied = outboxService.writeAtomically(() -> {
+            Set<String> landed = shipmentRepository.updateStatuses(changes, now);
+            for (int i : accepted) {
+                ShipmentStatusBatchUpdateRequest.Item update = updates.get(i);
+                if (landed.contains(update.getId())) {
+                    events.add(ShipmentEvent.statusUpdated(shipments.get(update.getId()), fromStatuses[i],
+                        update.getStatus(), now));
+                }
+            }
+            outboxService.recordAll(events);
+            return landed;
+        });
+        
+        for (int i : accepted) {
+            ShipmentStatusBatchUpdateRequest.Item update = updates.get(i);
+            Shipment shipment = shipments.get(update.getId());
+            if (applied.contains(update.getId())) {
+                results[i] = BatchItemResult.success(i, shipment.getId(), shipment.getTrackingNumber(), update.getStatus());
+                statisticsService.recordTransition(fromStatuses[i], update.getStatus());
+            } else {
+                results[i] = BatchItemResult.failure(i, update.getId(), "Shipment was modified concurrently");
+            }
+        }
+        
+        for (String id : applied) {
+            Shipment shipment = shipments.get(id);
+            statisticsService.recordStatusChange(shipment.getStatus(), projected.get(id));
+            trackingCache.invalidate(shipment.getTrackingNumber());
+        }
+        
+        events.forEach(eventPublisher::publishEvent);
+        
+        return new BatchResponse(Arrays.asList(results));
     }
     
     public void deleteShipment(String id) {
-        if (!shipmentRepository.existsById(id)) {
-            throw new BusinessException("Shipment not found with ID: " + id);
-        }
+        Shipment shipment = shipmentRepository.findById(id)
+            .orElseThrow(() -> new BusinessException("Shipment not found with ID: " + id));
         
         logger.info("Deleting shipment with ID: {}", id);
-        shipmentRepository.deleteById(id);
-        
-        // Publish event to Kafka
-        kafkaProducerService.publishShipmentEvent(null, "SHIPMENT_DELETED", id);
+        ShipmentEvent event = ShipmentEvent.deleted(shipment);
+        outboxService.writeAtomically(() -> {
+            shipmentRepository.deleteById(id);
+            outboxService.record(event);
+            return null;
+        });
+        trackingCache.invalidate(shipment.getTrackingNumber());
+        statisticsService.recordDeleted(shipment);
+        eventPublisher.publishEvent(event);
+    }
+    
+    // One indexed read; not cached, since the tracking cache holds whole shipments
+    public Optional<ShipmentTimeline> getTimeline(String trackingNumber) {
+        if (!mayExist(trackingNumber)) {
+            return Optional.empty();
+        }
+        // Built from the cached shipment, so the tracking page shares the tracking cache and its coalesced loads
+        return getShipmentByTrackingNumber(trackingNumber).map(ShipmentTimeline::of);
+    }
+    
+    public Slice<ShipmentStatusHistory> getStatusHistory(String id, int page, int size) {
+        return statusHistoryRepository.findByShipmentIdOrderByChangedAtDesc(id, PageRequest.of(page, size));
     }
     
     public List<Shipment> getShipmentsByStatus(ShipmentStatus status) {
@@ -111,15 +339,109 @@ public class ShipmentService {
     }
     
     public List<Shipment> getOverdueShipments() {
-        List<ShipmentStatus> terminalStatuses = List.of(
-            ShipmentStatus.DELIVERED, 
-            ShipmentStatus.RETURNED, 
-            ShipmentStatus.CANCELLED
-        );
-        return shipmentRepository.findOverdueShipments(LocalDateTime.now(), terminalStatuses);
+        // The monitor already knows which shipments are overdue, leaving only an _id lookup
+        if (overdueMonitor.isReady()) {
+            // Re-checked against the stored shipments, so an entry the monitor has not dropped yet never shows
+            LocalDateTime now = LocalDateTime.now();
+            List<ShipmentStatus> active = ShipmentStatus.activeStatuses();
+            List<Shipment> overdue = new ArrayList<>();
+            for (Shipment shipment : shipmentRepository.findAllById(overdueMonitor.getOverdueIds())) {
+                if (active.contains(shipment.getStatus()) && shipment.getEstimatedDelivery() != null
+                        && shipment.getEstimatedDelivery().isBefore(now)) {
+                    overdue.add(shipment);
+                }
+            }
+            overdue.sort(Comparator.comparing(Shipment::getEstimatedDelivery, Comparator.nullsLast(Comparator.naturalOrder())));
+            return overdue;
+        }
+        return shipmentRepository.findOverdueShipments(LocalDateTime.now(), ShipmentStatus.activeStatuses());
+    }
+    
+    public CursorPage<Shipment> getShipments(String cursor, int size) {
+        return slice(new Criteria(), cursor, size);
+    }
+    
+    public CursorPage<Shipment> getShipmentsByStatus(ShipmentStatus status, String cursor, int size) {
+        return slice(Criteria.where("status").is(status), cursor, size);
+    }
+    
+    public CursorPage<Shipment> getOverdueShipments(String cursor, int size) {
+        return slice(ShipmentRepositoryCustomImpl.overdueCriteria(LocalDateTime.now()), cursor, size);
+    }
+    
+    public Slice<Shipment> searchByLocation(String query, int page, int size) {
+        if (LocationNormalizer.tokens(query).isEmpty()) {
+            throw new BusinessException("Search query must contain letters or digits");
+        }
+        return shipmentRepository.searchByLocation(query, PageRequest.of(page, size));
+    }
+    
+    public ShipmentStatsResponse getShipmentStats() {
+        return statisticsService.getStats();
+    }
+    
+    // Fetches one extra document to learn whether another page exists without counting
+    private CursorPage<Shipment> slice(Criteria filter, String cursor, int size) {
+        ShipmentCursor after = cursor != null && !cursor.isBlank() ? ShipmentCursor.decode(cursor) : null;
+        List<Shipment> shipments = shipmentRepository.findSlice(filter, after, size + 1);
+        
+        if (shipments.size() <= size) {
+            return new CursorPage<>(shipments, shipments.size(), null);
+        }
+        List<Shipment> content = new ArrayList<>(shipments.subList(0, size));
+        return new CursorPage<>(content, size, ShipmentCursor.of(content.get(size - 1)).encode());
     }
     
-    private String generateTrackingNumber() {
-        return "DT" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    // Mistyped and never-issued numbers are answered from memory
+    private boolean mayExist(String trackingNumber) {
+        return trackingNumbers.isPlausible(trackingNumber) && trackingFilter.mightExist(trackingNumber);
+    }
+    
+    // Only reached when the conditional update matched nothing, so the extra read is off the happy path
+    private BusinessException transitionFailure(String id, ShipmentStatus newStatus) {
+        return shipmentRepository.findById(id)
+            .<BusinessException>map(shipment -> {
+                statisticsService.recordRejectedTransition(shipment.getStatus(), newStatus);
+                return new StatusConflictException(String.format(
+                    "Invalid status transition from %s to %s", shipment.getStatus(), newStatus));
+            })
+            .orElseGet(() -> new BusinessException("Shipment not found with ID: " + id));
+    }
+    
+    // Shared with ReactiveShipmentService
+    static Shipment copyWithStatus(Shipment source, ShipmentStatus status, LocalDateTime updatedAt) {
+        Shipment copy = new Shipment(source.getOrigin(), source.getDestination(), status);
+        copy.setId(source.getId());
+        copy.setTrackingNumber(source.getTrackingNumber());
+        copy.setDescription(source.getDescription());
+        copy.setEstimatedDelivery(source.getEstimatedDelivery());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(updatedAt);
+        return copy;
+    }
+    
+    static Shipment buildShipment(ShipmentCreateRequest request, String trackingNumber) {
+        Shipment shipment = new Shipment();
+        shipment.setOrigin(request.getOrigin());
+        shipment.setDestination(request.getDestination());
+        shipment.setDescription(request.getDescription());
+        shipment.setStatus(ShipmentStatus.CREATED);
+        shipment.setTrackingNumber(trackingNumber);
+        shipment.setRecentHistory(new ArrayList<>(List.of(
+            new StatusHistoryEntry(ShipmentStatus.CREATED, LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS)))));
+        shipment.setHistoryCount(1);
+        shipment.setEstimatedDelivery(request.getEstimatedDelivery() != null ? 
+            request.getEstimatedDelivery() : LocalDateTime.now().plusDays(3));
+        return shipment;
+    }
+    
+    private record ShipmentWrite(Shipment shipment, ShipmentEvent event) {}
+    
+    // Unwinds the transaction of a batch insert with failed items; see insertWithEvents
+    private static final class PartialBatchRollback extends RuntimeException {
+        
+        PartialBatchRollback() {
+            super(null, null, false, false);
+        }
     }
 }
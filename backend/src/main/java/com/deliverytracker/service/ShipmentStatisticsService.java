@@ -0,0 +1,156 @@
+package com.deliverytracker.service;
+
+import com.deliverytracker.dto.DailyCount;
+import com.deliverytracker.dto.ShipmentStatsResponse;
+import com.deliverytracker.dto.StatusCount;
+import com.deliverytracker.model.Shipment;
+import com.deliverytracker.model.ShipmentStatus;
+import com.deliverytracker.repository.ShipmentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class ShipmentStatisticsService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ShipmentStatisticsService.class);
+    
+    private final ShipmentRepository shipmentRepository;
+    private final MeterRegistry meterRegistry;
+    private final int createdDays;
+    
+    private final Map<ShipmentStatus, AtomicLong> statusCounts = new EnumMap<>(ShipmentStatus.class);
+    private final ConcurrentMap<LocalDate, AtomicLong> createdPerDay = new ConcurrentHashMap<>();
+    private final AtomicLong overdueCount = new AtomicLong();
+    private volatile LocalDateTime lastReconciledAt;
+    
+    // Indexed [from][to] by ordinal, legal pairs only, so the update path does no meter lookups
+    private final Counter[][] transitionCounters;
+    
+    @Autowired
+    public ShipmentStatisticsService(ShipmentRepository shipmentRepository,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.stats.created-days:30}") int createdDays) {
+        this.shipmentRepository = shipmentRepository;
+        this.meterRegistry = meterRegistry;
+        this.createdDays = createdDays;
+        for (ShipmentStatus status : ShipmentStatus.values()) {
+            statusCounts.put(status, new AtomicLong());
+        }
+        
+        ShipmentStatus[] statuses = ShipmentStatus.values();
+        this.transitionCounters = new Counter[statuses.length][statuses.length];
+        for (ShipmentStatus from : statuses) {
+            for (ShipmentStatus to : statuses) {
+                if (from.canTransitionTo(to)) {
+                    transitionCounters[from.ordinal()][to.ordinal()] = Counter.builder("shipments.status.transitions")
+                        .description("Status changes applied, by previous and new status")
+                        .tag("from", from.name())
+                        .tag("to", to.name())
+                        .register(meterRegistry);
+                }
+            }
+        }
+    }
+    
+    public void recordCreated(Shipment shipment) {
+        statusCounts.get(shipment.getStatus()).incrementAndGet();
+        LocalDate day = shipment.getCreatedAt() != null ? shipment.getCreatedAt().toLocalDate() : LocalDate.now();
+        createdPerDay.computeIfAbsent(day, d -> new AtomicLong()).incrementAndGet();
+    }
+    
+    public void recordStatusChange(ShipmentStatus oldStatus, ShipmentStatus newStatus) {
+        statusCounts.get(oldStatus).decrementAndGet();
+        statusCounts.get(newStatus).incrementAndGet();
+    }
+    
+    // Once per applied transition; batches call recordStatusChange with the net change instead
+    public void recordTransition(ShipmentStatus from, ShipmentStatus to) {
+        transitionCounters[from.ordinal()][to.ordinal()].increment();
+    }
+    
+    // Rejections are off the happy path, so the counter is looked up per call
+    public void recordRejectedTransition(ShipmentStatus currentStatus, ShipmentStatus requestedStatus) {
+        meterRegistry.counter("shipments.status.transitions.rejected",
+            "from", currentStatus.name(), "to", requestedStatus.name()).increment();
+    }
+    
+    public void recordDeleted(Shipment shipment) {
+        statusCounts.get(shipment.getStatus()).decrementAndGet();
+    }
+    
+    public ShipmentStatsResponse getStats() {
+        Map<ShipmentStatus, Long> byStatus = new EnumMap<>(ShipmentStatus.class);
+        long total = 0;
+        for (Map.Entry<ShipmentStatus, AtomicLong> entry : statusCounts.entrySet()) {
+            long count = Math.max(0, entry.getValue().get());
+            byStatus.put(entry.getKey(), count);
+            total += count;
+        }
+        
+        LocalDate firstDay = LocalDate.now().minusDays(createdDays - 1L);
+        Map<LocalDate, Long> created = new TreeMap<>();
+        for (LocalDate day = firstDay; !day.isAfter(LocalDate.now()); day = day.plusDays(1)) {
+            AtomicLong count = createdPerDay.get(day);
+            created.put(day, count != null ? count.get() : 0L);
+        }
+        
+        return new ShipmentStatsResponse(total, byStatus, overdueCount.get(), created, lastReconciledAt);
+    }
+    
+    // Counters drift under concurrent writes and missed updates; periodically replace them with the stored truth
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-interval:PT1M}")
+    public void reconcile() {
+        try {
+            Map<ShipmentStatus, Long> counted = new EnumMap<>(ShipmentStatus.class);
+            for (StatusCount statusCount : shipmentRepository.countGroupedByStatus()) {
+                if (statusCount.getStatus() != null) {
+                    counted.put(statusCount.getStatus(), statusCount.getCount());
+                }
+            }
+            // Archived shipments still count towards their final status
+            for (StatusCount statusCount : shipmentRepository.countArchivedGroupedByStatus()) {
+                if (statusCount.getStatus() != null) {
+                    counted.merge(statusCount.getStatus(), statusCount.getCount(), Long::sum);
+                }
+            }
+            for (ShipmentStatus status : ShipmentStatus.values()) {
+                statusCounts.get(status).set(counted.getOrDefault(status, 0L));
+            }
+            
+            LocalDateTime since = LocalDate.now().minusDays(createdDays - 1L).atStartOfDay();
+            String timezone = ZoneId.systemDefault().getId();
+            Map<LocalDate, AtomicLong> days = new TreeMap<>();
+            for (DailyCount dailyCount : shipmentRepository.countCreatedPerDaySince(since, timezone)) {
+                days.put(LocalDate.parse(dailyCount.getDay()), new AtomicLong(dailyCount.getCount()));
+            }
+            createdPerDay.keySet().removeIf(day -> !days.containsKey(day));
+            for (Map.Entry<LocalDate, AtomicLong> entry : days.entrySet()) {
+                createdPerDay.computeIfAbsent(entry.getKey(), d -> new AtomicLong()).set(entry.getValue().get());
+            }
+            
+            overdueCount.set(shipmentRepository.countOverdueShipments(
+                LocalDateTime.now(), ShipmentStatus.activeStatuses()));
+            lastReconciledAt = LocalDateTime.now();
+            
+            logger.debug("Reconciled shipment statistics: {}", counted);
+        } catch (Exception e) {
+            logger.error("Failed to reconcile shipment statistics: {}", e.getMessage(), e);
+        }
+    }
+}
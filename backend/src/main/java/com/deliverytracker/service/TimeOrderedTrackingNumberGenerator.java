@@ -0,0 +1,115 @@
+package com.deliverytracker.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+// DT + 13 Crockford base32 characters + 1 check character, e.g. DT0B8Z3K9QH2A4M7.
+// The 64-bit value is 41 bits of milliseconds since 2024-01-01, a 10-bit node id leased per instance and a
+// 12-bit sequence, so numbers are unique across replicas and sort by creation time, which keeps inserts into
+// the trackingNumber index at its right edge.
+@Component
+public class TimeOrderedTrackingNumberGenerator implements TrackingNumberGenerator {
+    
+    public static final String NAME = "time-ordered";
+    public static final int NODE_BITS = 10;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    
+    private static final String PREFIX = "DT";
+    private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+    private static final int PAYLOAD_LENGTH = 13;
+    private static final int LENGTH = PREFIX.length() + PAYLOAD_LENGTH + 1;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    
+    private final IntSupplier nodeId;
+    
+    // (milliseconds since EPOCH << SEQUENCE_BITS) | sequence of the last number issued
+    private final AtomicLong state = new AtomicLong();
+    
+    @Autowired
+    public TimeOrderedTrackingNumberGenerator(TrackingNodeLease nodeLease) {
+        this(nodeLease::getNodeId);
+    }
+    
+    public TimeOrderedTrackingNumberGenerator(IntSupplier nodeId) {
+        this.nodeId = nodeId;
+    }
+    
+    @Override
+    public String name() {
+        return NAME;
+    }
+    
+    @Override
+    public String next() {
+        // Lock-free: within one millisecond the sequence increments, and once it overflows the carry moves into
+        // the timestamp, borrowing the next millisecond instead of waiting for it. A clock that steps backwards
+        // is handled the same way.
+        long last;
+        long next;
+        do {
+            last = state.get();
+            long now = System.currentTimeMillis() - EPOCH;
+            next = now > (last >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : last + 1;
+        } while (!state.compareAndSet(last, next));
+        
+        long millis = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        long value = (millis << (NODE_BITS + SEQUENCE_BITS)) | ((long) nodeId.getAsInt() << SEQUENCE_BITS) | sequence;
+        return encode(value);
+    }
+    
+    @Override
+    public boolean rejects(String trackingNumber) {
+        if (trackingNumber.length() != LENGTH || !trackingNumber.startsWith(PREFIX)) {
+            return false;
+        }
+        for (int i = PREFIX.length(); i < LENGTH; i++) {
+            if (ALPHABET.indexOf(trackingNumber.charAt(i)) < 0) {
+                return true;
+            }
+        }
+        return trackingNumber.charAt(LENGTH - 1) != checkCharacter(trackingNumber, PREFIX.length(), LENGTH - 1);
+    }
+    
+    @Override
+    public Optional<Instant> issuedAt(String trackingNumber) {
+        if (trackingNumber.length() != LENGTH || !trackingNumber.startsWith(PREFIX) || rejects(trackingNumber)) {
+            return Optional.empty();
+        }
+        long value = 0;
+        for (int i = PREFIX.length(); i < LENGTH - 1; i++) {
+            value = (value << 5) | ALPHABET.indexOf(trackingNumber.charAt(i));
+        }
+        return Optional.of(Instant.ofEpochMilli(EPOCH + (value >>> (NODE_BITS + SEQUENCE_BITS))));
+    }
+    
+    static String encode(long value) {
+        char[] chars = new char[LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        // Fixed width, most significant character first, so string order matches numeric order
+        for (int i = LENGTH - 2; i >= PREFIX.length(); i--) {
+            chars[i] = ALPHABET.charAt((int) (value & 31));
+            value >>>= 5;
+        }
+        chars[LENGTH - 1] = checkCharacter(new String(chars, 0, LENGTH - 1), PREFIX.length(), LENGTH - 1);
+        return new String(chars);
+    }
+    
+    // Luhn mod 32: catches every single-character typo and most swaps of adjacent characters
+    private static char checkCharacter(String value, int from, int to) {
+        int sum = 0;
+        int factor = 2;
+        for (int i = to - 1; i >= from; i--) {
+            int addend = factor * ALPHABET.indexOf(value.charAt(i));
+            sum += addend / 32 + addend % 32;
+            factor = factor == 2 ? 1 : 2;
+        }
+        return ALPHABET.charAt((32 - sum % 32) % 32);
+    }
+}
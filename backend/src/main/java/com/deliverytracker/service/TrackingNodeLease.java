@@ -0,0 +1,149 @@
+package com.deliverytracker.service;
+
+import com.deliverytracker.config.InstanceInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+// Gives each running instance its own node id for TimeOrderedTrackingNumberGenerator. Ids are leased from Mongo
+// unless app.tracking-number.node-id pins one, and only while that generator is the configured one. Leases are
+// claimed and renewed at startup and on the scheduler only, so issuing a number never waits on Mongo, and a
+// leased id is only handed out until the lease would have expired.
+@Component
+public class TrackingNodeLease {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TrackingNodeLease.class);
+    private static final String LEASE_COLLECTION = "tracking_node_lease";
+    private static final int UNASSIGNED = -1;
+    
+    private final MongoTemplate mongoTemplate;
+    private final String instanceId;
+    private final Duration leaseDuration;
+    private final boolean pinned;
+    private final boolean inUse;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile int nodeId;
+    
+    // System.nanoTime() by which the lease of nodeId runs out, counted from before the write that took it
+    private volatile long validUntil;
+    
+    @Autowired
+    public TrackingNodeLease(MongoTemplate mongoTemplate,
+                             InstanceInfo instanceInfo,
+                             @Value("${app.tracking-number.generator:" + TimeOrderedTrackingNumberGenerator.NAME + "}") String generatorName,
+                             @Value("${app.tracking-number.node-id:-1}") int configuredNodeId,
+                             @Value("${app.tracking-number.node-lease:PT5M}") Duration leaseDuration) {
+        if (configuredNodeId > TimeOrderedTrackingNumberGenerator.MAX_NODE_ID) {
+            throw new IllegalStateException("app.tracking-number.node-id must be at most "
+                + TimeOrderedTrackingNumberGenerator.MAX_NODE_ID);
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.instanceId = instanceInfo.getInstanceId();
+        this.leaseDuration = leaseDuration;
+        this.pinned = configuredNodeId >= 0;
+        this.inUse = TimeOrderedTrackingNumberGenerator.NAME.equals(generatorName);
+        this.nodeId = pinned ? configuredNodeId : UNASSIGNED;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void claimOnStartup() {
+        if (inUse) {
+            renew();
+        }
+    }
+    
+    // Fails rather than issue numbers under an id another instance may have taken over meanwhile
+    public int getNodeId() {
+        int current = nodeId;
+        if (pinned) {
+            return current;
+        }
+        if (current == UNASSIGNED || System.nanoTime() - validUntil >= 0) {
+            throw new IllegalStateException("No valid tracking node id lease; it is renewed in the background");
+        }
+        return current;
+    }
+    
+    @Scheduled(fixedDelayString = "${app.tracking-number.node-renew-interval:PT1M}")
+    public void renew() {
+        if (pinned || !inUse) {
+            return;
+        }
+        lock.lock();
+        try {
+            int current = nodeId;
+            if (current == UNASSIGNED) {
+                claim();
+                return;
+            }
+            long started = System.nanoTime();
+            if (tryLease(current)) {
+                validUntil = started + leaseDuration.toNanos();
+            } else {
+                // Our lease expired and another instance took the id; move to a free one
+                logger.warn("Tracking node id {} was taken over by another instance", current);
+                nodeId = UNASSIGNED;
+                claim();
+            }
+        } catch (Exception e) {
+            logger.error("Failed to renew tracking node id {}: {}", nodeId, e.getMessage(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void claim() {
+        // Start from an id derived from the instance so restarts tend to get their previous id back
+        int start = Math.floorMod(instanceId.hashCode(), TimeOrderedTrackingNumberGenerator.MAX_NODE_ID + 1);
+        Set<Integer> held = new HashSet<>();
+        Query active = Query.query(where("expiresAt").gte(LocalDateTime.now()).and("owner").ne(instanceId));
+        mongoTemplate.find(active, LeaseRecord.class, LEASE_COLLECTION).forEach(lease -> held.add(lease.id()));
+        
+        for (int offset = 0; offset <= TimeOrderedTrackingNumberGenerator.MAX_NODE_ID; offset++) {
+            int candidate = (start + offset) % (TimeOrderedTrackingNumberGenerator.MAX_NODE_ID + 1);
+            long started = System.nanoTime();
+            if (!held.contains(candidate) && tryLease(candidate)) {
+                logger.info("Leased tracking node id {}", candidate);
+                validUntil = started + leaseDuration.toNanos();
+                nodeId = candidate;
+                return;
+            }
+        }
+        throw new IllegalStateException("No free tracking node id; all "
+            + (TimeOrderedTrackingNumberGenerator.MAX_NODE_ID + 1) + " are leased");
+    }
+    
+    private boolean tryLease(int candidate) {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = Query.query(where("_id").is(candidate)
+            .orOperator(where("owner").is(instanceId), where("expiresAt").lt(now)));
+        Update update = new Update().set("owner", instanceId).set("expiresAt", now.plus(leaseDuration));
+        
+        try {
+            mongoTemplate.upsert(query, update, LEASE_COLLECTION);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // Another instance holds an unexpired lease
+            return false;
+        }
+    }
+    
+    private record LeaseRecord(Integer id) {}
+}
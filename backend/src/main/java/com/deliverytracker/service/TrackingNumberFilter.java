@@ -0,0 +1,253 @@
+package com.deliverytracker.service;
+
+import com.deliverytracker.cache.BloomFilter;
+import com.deliverytracker.event.ShipmentEvent;
+import com.deliverytracker.event.ShipmentEventType;
+import com.deliverytracker.model.Shipment;
+import com.deliverytracker.model.ShipmentArchiveEntry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+// Bloom filter over every stored tracking number, live or archived, so lookups for numbers that were never issued (typos,
+// scraping) return 404 without a Mongo query. Built by streaming the collection at startup and rebuilt
+// periodically to drop deleted numbers and resize; shipments created in between are added from local events and
+// from a short catch-up query on createdAt, which also picks up shipments created by other instances.
+@Component
+public class TrackingNumberFilter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TrackingNumberFilter.class);
+    
+    // Sized for twice the current count so growth until the next rebuild keeps the rate near the target
+    private static final int CAPACITY_HEADROOM = 2;
+    
+    private final MongoTemplate mongoTemplate;
+    private final TrackingNumbers trackingNumbers;
+    private final boolean enabled;
+    private final double falsePositiveRate;
+    private final long minCapacity;
+    private final Duration syncInterval;
+    private final Duration syncOverlap;
+    private final Duration rebuildInterval;
+    private final boolean virtualThreads;
+    
+    // Null until the first build completes; until then every number may exist
+    private volatile BloomFilter filter;
+    // Receives local additions while a rebuild streams, so they survive the swap
+    private volatile BloomFilter building;
+    // Every shipment created before this instant is in the filter
+    private volatile Instant syncedThrough = Instant.MIN;
+    private volatile boolean running = true;
+    private Thread worker;
+    
+    private final Counter rejectedCounter;
+    private final Timer rebuildTimer;
+    
+    @Autowired
+    public TrackingNumberFilter(MongoTemplate mongoTemplate,
+                                TrackingNumbers trackingNumbers,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.tracking-filter.enabled:true}") boolean enabled,
+                                @Value("${app.tracking-filter.false-positive-rate:0.001}") double falsePositiveRate,
+                                @Value("${app.tracking-filter.min-capacity:100000}") long minCapacity,
+                                @Value("${app.tracking-filter.sync-interval:PT5S}") Duration syncInterval,
+                                @Value("${app.tracking-filter.sync-overlap:PT1M}") Duration syncOverlap,
+                                @Value("${app.tracking-filter.rebuild-interval:PT6H}") Duration rebuildInterval,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalStateException("app.tracking-filter.false-positive-rate must be between 0 and 1");
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.trackingNumbers = trackingNumbers;
+        this.enabled = enabled;
+        this.falsePositiveRate = falsePositiveRate;
+        this.minCapacity = minCapacity;
+        this.syncInterval = syncInterval;
+        this.syncOverlap = syncOverlap;
+        this.rebuildInterval = rebuildInterval;
+        this.virtualThreads = virtualThreads;
+        
+        this.rejectedCounter = Counter.builder("shipments.tracking.filter.rejected")
+            .description("Tracking lookups answered as not found without querying Mongo")
+            .register(meterRegistry);
+        this.rebuildTimer = Timer.builder("shipments.tracking.filter.rebuild")
+            .description("Time to stream every tracking number into a new filter")
+            .register(meterRegistry);
+        gauge(meterRegistry, "shipments.tracking.filter.bytes", "Memory used by the filter's bit array",
+            BloomFilter::sizeInBytes);
+        gauge(meterRegistry, "shipments.tracking.filter.entries", "Tracking numbers added to the filter",
+            BloomFilter::approximateCount);
+        gauge(meterRegistry, "shipments.tracking.filter.false-positive-rate",
+            "Expected false positive rate at the current number of entries", BloomFilter::expectedFalsePositiveRate);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        Thread.Builder builder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        worker = builder.name("tracking-filter").start(this::run);
+    }
+    
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+    
+    public boolean isReady() {
+        return filter != null;
+    }
+    
+    public boolean mightExist(String trackingNumber) {
+        BloomFilter current = filter;
+        if (current == null || current.mightContain(trackingNumber)) {
+            return true;
+        }
+        // Not caught up yet with numbers issued since the last sync, e.g. by another instance
+        Optional<Instant> issuedAt = trackingNumbers.issuedAt(trackingNumber);
+        if (issuedAt.isPresent() && !issuedAt.get().isBefore(syncedThrough)) {
+            return true;
+        }
+        rejectedCounter.increment();
+        return false;
+    }
+    
+    @EventListener
+    public void onShipmentEvent(ShipmentEvent event) {
+        if (event.getType() == ShipmentEventType.SHIPMENT_CREATED && event.getTrackingNumber() != null) {
+            add(event.getTrackingNumber());
+        }
+    }
+    
+    private void add(String trackingNumber) {
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(trackingNumber);
+        }
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(trackingNumber);
+        }
+    }
+    
+    private void run() {
+        long lastRebuild = 0;
+        while (running) {
+            try {
+                BloomFilter current = filter;
+                boolean overfull = current != null
+                    && current.expectedFalsePositiveRate() > falsePositiveRate * CAPACITY_HEADROOM;
+                if (current == null || overfull || System.nanoTime() - lastRebuild >= rebuildInterval.toNanos()) {
+                    rebuild();
+                    lastRebuild = System.nanoTime();
+                } else {
+                    sync();
+                }
+            } catch (RuntimeException e) {
+                // Lookups keep going to Mongo for anything the filter has not seen; the next pass retries
+                logger.error("Tracking number filter refresh failed: {}", e.getMessage(), e);
+            }
+            
+            try {
+                Thread.sleep(syncInterval.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+    
+    private void rebuild() {
+        long started = System.nanoTime();
+        Instant cutoff = Instant.now().minus(syncOverlap);
+        long stored = mongoTemplate.estimatedCount(Shipment.class) + mongoTemplate.estimatedCount(ShipmentArchiveEntry.class);
+        long capacity = Math.max(minCapacity, stored * CAPACITY_HEADROOM);
+        BloomFilter next = BloomFilter.create(capacity, falsePositiveRate);
+        building = next;
+        
+        try {
+            Query query = new Query().cursorBatchSize(1000);
+            query.fields().include("trackingNumber");
+            long loaded = stream(query, next);
+            // Read after the live collection: the archiver indexes a shipment before removing it from there
+            loaded += streamArchived(next);
+            
+            filter = next;
+            syncedThrough = cutoff;
+            rebuildTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            logger.info("Tracking number filter rebuilt with {} numbers in {} ms ({} KiB, capacity {})",
+                loaded, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), next.sizeInBytes() / 1024, capacity);
+        } finally {
+            building = null;
+        }
+    }
+    
+    // Uses the createdAt index; the overlap re-reads inserts that were still in flight during the previous pass
+    private void sync() {
+        BloomFilter current = filter;
+        Instant cutoff = Instant.now().minus(syncOverlap);
+        Query query = Query.query(where("createdAt").gte(LocalDateTime.ofInstant(syncedThrough, ZoneId.systemDefault())))
+            .cursorBatchSize(1000);
+        query.fields().include("trackingNumber");
+        stream(query, current);
+        syncedThrough = cutoff;
+    }
+    
+    private long stream(Query query, BloomFilter target) {
+        long loaded = 0;
+        try (Stream<Shipment> shipments = mongoTemplate.stream(query, Shipment.class)) {
+            for (Shipment shipment : (Iterable<Shipment>) shipments::iterator) {
+                if (shipment.getTrackingNumber() != null) {
+                    target.put(shipment.getTrackingNumber());
+                    loaded++;
+                }
+            }
+        }
+        return loaded;
+    }
+    
+    private long streamArchived(BloomFilter target) {
+        long loaded = 0;
+        try (Stream<ShipmentArchiveEntry> entries = mongoTemplate.stream(new Query().cursorBatchSize(1000),
+                ShipmentArchiveEntry.class)) {
+            for (ShipmentArchiveEntry entry : (Iterable<ShipmentArchiveEntry>) entries::iterator) {
+                target.put(entry.getTrackingNumber());
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+    
+    private void gauge(MeterRegistry meterRegistry, String name, String description,
+                       ToDoubleFunction<BloomFilter> value) {
+        Gauge.builder(name, this, self -> self.filter != null ? value.applyAsDouble(self.filter) : 0)
+            .description(description)
+            .register(meterRegistry);
+    }
+}
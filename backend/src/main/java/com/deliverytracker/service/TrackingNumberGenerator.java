@@ -0,0 +1,20 @@
+package com.deliverytracker.service;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface TrackingNumberGenerator {
+    
+    // Selected with app.tracking-number.generator
+    String name();
+    
+    String next();
+    
+    // True only for numbers in this generator's format that it can never have issued, e.g. a bad check character
+    boolean rejects(String trackingNumber);
+    
+    // When the number was issued, for formats that encode it
+    default Optional<Instant> issuedAt(String trackingNumber) {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,58 @@
+package com.deliverytracker.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// New shipments get numbers from the configured generator. Lookups accept the formats of every generator, so
+// numbers issued before a switch keep resolving.
+@Component
+public class TrackingNumbers {
+    
+    private final List<TrackingNumberGenerator> generators;
+    private final TrackingNumberGenerator generator;
+    
+    @Autowired
+    public TrackingNumbers(List<TrackingNumberGenerator> generators,
+                           @Value("${app.tracking-number.generator:" + TimeOrderedTrackingNumberGenerator.NAME + "}") String generatorName) {
+        Map<String, TrackingNumberGenerator> generatorsByName = new HashMap<>();
+        for (TrackingNumberGenerator candidate : generators) {
+            generatorsByName.put(candidate.name(), candidate);
+        }
+        this.generators = generators;
+        this.generator = generatorsByName.get(generatorName);
+        if (generator == null) {
+            throw new IllegalStateException("Unknown tracking number generator: " + generatorName);
+        }
+    }
+    
+    public String next() {
+        return generator.next();
+    }
+    
+    // Lets lookups skip the database for mistyped numbers
+    public boolean isPlausible(String trackingNumber) {
+        for (TrackingNumberGenerator candidate : generators) {
+            if (candidate.rejects(trackingNumber)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    public Optional<Instant> issuedAt(String trackingNumber) {
+        for (TrackingNumberGenerator candidate : generators) {
+            Optional<Instant> issuedAt = candidate.issuedAt(trackingNumber);
+            if (issuedAt.isPresent()) {
+                return issuedAt;
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,101 @@
+package com.deliverytracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeOrderedTrackingNumberGeneratorTest {
+    
+    private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+    
+    private final TimeOrderedTrackingNumberGenerator generator = new TimeOrderedTrackingNumberGenerator(() -> 5);
+    
+    @Test
+    void encodesFixedWidthWithCheckCharacter() {
+        assertThat(TimeOrderedTrackingNumberGenerator.encode(0)).isEqualTo("DT00000000000000");
+        assertThat(TimeOrderedTrackingNumberGenerator.encode(1)).isEqualTo("DT0000000000001Y");
+        assertThat(TimeOrderedTrackingNumberGenerator.encode(-1)).hasSize(16).startsWith("DTF");
+    }
+    
+    @Test
+    void encodingKeepsNumericOrder() {
+        long[] values = {0, 1, 31, 32, 1L << 40, (1L << 40) + 1, Long.MAX_VALUE};
+        for (int i = 1; i < values.length; i++) {
+            assertThat(TimeOrderedTrackingNumberGenerator.encode(values[i]))
+                .isGreaterThan(TimeOrderedTrackingNumberGenerator.encode(values[i - 1]));
+        }
+    }
+    
+    @Test
+    void issuesNumbersItAccepts() {
+        String previous = "";
+        for (int i = 0; i < 10_000; i++) {
+            String number = generator.next();
+            assertThat(generator.rejects(number)).isFalse();
+            assertThat(number).isGreaterThan(previous);
+            previous = number;
+        }
+    }
+    
+    @Test
+    void rejectsEverySingleCharacterTypo() {
+        String number = generator.next();
+        for (int i = 2; i < number.length(); i++) {
+            for (char replacement : ALPHABET.toCharArray()) {
+                if (replacement != number.charAt(i)) {
+                    String typo = number.substring(0, i) + replacement + number.substring(i + 1);
+                    assertThat(generator.rejects(typo)).as(typo).isTrue();
+                }
+            }
+        }
+    }
+    
+    @Test
+    void rejectsCharactersOutsideTheAlphabet() {
+        String number = generator.next();
+        for (char invalid : "ILOU-a".toCharArray()) {
+            assertThat(generator.rejects(number.substring(0, 5) + invalid + number.substring(6))).isTrue();
+        }
+    }
+    
+    @Test
+    void leavesOtherFormatsAlone() {
+        assertThat(generator.rejects("DT1A2B3C4D")).isFalse();
+        assertThat(generator.rejects("XX00000000000000")).isFalse();
+        assertThat(generator.rejects("")).isFalse();
+    }
+    
+    @Test
+    void readsIssueTimeBackFromTheNumber() {
+        Instant before = Instant.now().minusMillis(1);
+        String number = generator.next();
+        Instant after = Instant.now().plusMillis(1);
+        
+        assertThat(generator.issuedAt(number)).hasValueSatisfying(issuedAt ->
+            assertThat(issuedAt).isBetween(before, after));
+        assertThat(generator.issuedAt("DT00000000000000")).contains(Instant.parse("2024-01-01T00:00:00Z"));
+    }
+    
+    @Test
+    void hasNoIssueTimeForRejectedOrForeignNumbers() {
+        String number = generator.next();
+        String typo = number.substring(0, 15) + (number.charAt(15) == '0' ? '1' : '0');
+        
+        assertThat(generator.issuedAt(typo)).isEmpty();
+        assertThat(generator.issuedAt("DT1A2B3C4D")).isEmpty();
+    }
+    
+    @Test
+    void borrowsTheNextMillisecondWhenTheSequenceOverflows() {
+        Instant started = Instant.now();
+        String last = null;
+        for (int i = 0; i < 3 * 4096; i++) {
+            last = generator.next();
+        }
+        assertThat(generator.issuedAt(last)).hasValueSatisfying(issuedAt ->
+            assertThat(Duration.between(started, issuedAt)).isLessThan(Duration.ofSeconds(5)));
+    }
+}
@@ -0,0 +1,48 @@
+package com.deliverytracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TrackingNumbersTest {
+    
+    private final TimeOrderedTrackingNumberGenerator timeOrdered = new TimeOrderedTrackingNumberGenerator(() -> 1);
+    private final RandomTrackingNumberGenerator random = new RandomTrackingNumberGenerator();
+    
+    @Test
+    void issuesWithTheConfiguredGenerator() {
+        assertThat(numbers(TimeOrderedTrackingNumberGenerator.NAME).next()).hasSize(16);
+        assertThat(numbers(RandomTrackingNumberGenerator.NAME).next()).matches("DT[0-9A-F]{8}");
+    }
+    
+    @Test
+    void acceptsNumbersOfEveryGenerator() {
+        TrackingNumbers numbers = numbers(RandomTrackingNumberGenerator.NAME);
+        
+        assertThat(numbers.isPlausible(timeOrdered.next())).isTrue();
+        assertThat(numbers.isPlausible(random.next())).isTrue();
+        assertThat(numbers.isPlausible("DT00000000000001")).isFalse();
+    }
+    
+    @Test
+    void readsIssueTimeOnlyFromFormatsThatEncodeIt() {
+        TrackingNumbers numbers = numbers(TimeOrderedTrackingNumberGenerator.NAME);
+        
+        assertThat(numbers.issuedAt(timeOrdered.next())).isPresent();
+        assertThat(numbers.issuedAt(random.next())).isEmpty();
+    }
+    
+    @Test
+    void failsOnUnknownGenerator() {
+        assertThatThrownBy(() -> numbers("sequential"))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("sequential");
+    }
+    
+    private TrackingNumbers numbers(String generatorName) {
+        return new TrackingNumbers(List.of(timeOrdered, random), generatorName);
+    }
+}
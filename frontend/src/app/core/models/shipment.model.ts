@@ -10,6 +10,17 @@ export interface Shipment {
   description?: string;
 }
 
+export interface StatusHistoryEntry {
+  status: ShipmentStatus;
+  changedAt: string;
+}
+
+export interface ShipmentTimeline extends Shipment {
+  history: StatusHistoryEntry[];
+  totalEntries: number;
+  complete: boolean;
+}
+
 export enum ShipmentStatus {
   CREATED = 'CREATED',
   PICKED_UP = 'PICKED_UP',
@@ -32,6 +43,14 @@ export interface ShipmentUpdateRequest {
   status: ShipmentStatus;
 }
 
+export interface ShipmentStats {
+  total: number;
+  byStatus: Record<ShipmentStatus, number>;
+  overdue: number;
+  createdPerDay: Record<string, number>;
+  lastReconciledAt?: string;
+}
+
 export const SHIPMENT_STATUS_LABELS: Record<ShipmentStatus, string> = {
   [ShipmentStatus.CREATED]: 'Order created',
   [ShipmentStatus.PICKED_UP]: 'Picked up from origin',
@@ -7,7 +7,9 @@ import {
   Shipment, 
   ShipmentCreateRequest, 
   ShipmentUpdateRequest, 
-  ShipmentStatus 
+  ShipmentStatus,
+  ShipmentStats,
+  ShipmentTimeline
 } from '../models/shipment.model';
 import { environment } from '../../../environments/environment';
 
@@ -60,6 +62,10 @@ export class ShipmentService {
     return this.http.get<Shipment>(`${this.API_URL}/track/${trackingNumber}`);
   }
 
+  getTimeline(trackingNumber: string): Observable<ShipmentTimeline> {
+    return this.http.get<ShipmentTimeline>(`${this.API_URL}/track/${trackingNumber}/timeline`);
+  }
+
   updateShipmentStatus(id: number, request: ShipmentUpdateRequest): Observable<Shipment> {
     return this.http.put<Shipment>(`${this.API_URL}/${id}/status`, request)
       .pipe(
@@ -94,6 +100,10 @@ export class ShipmentService {
     return this.http.get<Shipment[]>(`${this.API_URL}/overdue`);
   }
 
+  getShipmentStats(): Observable<ShipmentStats> {
+    return this.http.get<ShipmentStats>(`${this.API_URL}/stats`);
+  }
+
   refreshShipments(): void {
     this.getAllShipments().subscribe();
   }
@@ -12,6 +12,7 @@ import { ShipmentService } from '../../core/services/shipment.service';
 import { 
   Shipment, 
   ShipmentStatus, 
+  ShipmentStats,
   SHIPMENT_STATUS_LABELS, 
   SHIPMENT_STATUS_BADGES 
 } from '../../core/models/shipment.model';
@@ -142,12 +143,22 @@ export class DashboardComponent implements OnInit, OnDestroy {
   loadDashboardData() {
     this.loading = true;
     
-    this.shipmentService.getAllShipments(0, 50)
+    this.shipmentService.getShipmentStats()
+      .pipe(takeUntil(this.destroy$))
+      .subscribe({
+        next: (stats) => {
+          this.calculateStats(stats);
+        },
+        error: (error) => {
+          console.error('Error loading shipment statistics:', error);
+        }
+      });
+    
+    this.shipmentService.getAllShipments(0, 5)
       .pipe(takeUntil(this.destroy$))
       .subscribe({
         next: (response) => {
-          this.calculateStats(response.content);
-          this.recentShipments = response.content.slice(0, 5);
+          this.recentShipments = response.content;
           this.loading = false;
         },
         error: () => {
@@ -169,16 +180,15 @@ export class DashboardComponent implements OnInit, OnDestroy {
       });
   }
 
-  calculateStats(shipments: Shipment[]) {
+  calculateStats(stats: ShipmentStats) {
+    const count = (status: ShipmentStatus) => stats.byStatus[status] ?? 0;
     this.stats = {
-      total: shipments.length,
-      inTransit: shipments.filter(s => 
-        s.status === ShipmentStatus.IN_TRANSIT || 
-        s.status === ShipmentStatus.PICKED_UP ||
-        s.status === ShipmentStatus.OUT_FOR_DELIVERY
-      ).length,
-      delivered: shipments.filter(s => s.status === ShipmentStatus.DELIVERED).length,
-      delayed: shipments.filter(s => s.status === ShipmentStatus.DELAYED).length
+      total: stats.total,
+      inTransit: count(ShipmentStatus.IN_TRANSIT) + 
+        count(ShipmentStatus.PICKED_UP) + 
+        count(ShipmentStatus.OUT_FOR_DELIVERY),
+      delivered: count(ShipmentStatus.DELIVERED),
+      delayed: count(ShipmentStatus.DELAYED)
     };
   }
 
@@ -7,7 +7,7 @@ import { takeUntil } from 'rxjs/operators';
 
 import { ShipmentService } from '../../core/services/shipment.service';
 import { 
-  Shipment, 
+  ShipmentTimeline, 
   ShipmentStatus, 
   SHIPMENT_STATUS_LABELS, 
   SHIPMENT_STATUS_BADGES 
@@ -164,7 +164,7 @@ export class TrackingComponent implements OnInit, OnDestroy {
   ShipmentStatus = ShipmentStatus;
   
   trackingNumber = '';
-  shipment: Shipment | null = null;
+  shipment: ShipmentTimeline | null = null;
   loading = false;
   error = '';
   searched = false;
@@ -206,10 +206,10 @@ export class TrackingComponent implements OnInit, OnDestroy {
     this.shipment = null;
     this.searched = false;
 
-    this.shipmentService.trackShipment(this.trackingNumber.trim())
+    this.shipmentService.getTimeline(this.trackingNumber.trim())
       .pipe(takeUntil(this.destroy$))
       .subscribe({
-        next: (shipment: Shipment) => {
+        next: (shipment: ShipmentTimeline) => {
           this.shipment = shipment;
           this.loading = false;
           this.searched = true;